@@ -0,0 +1,49 @@
+import java.util.HashMap;
+
+/** Shared store of athletes and their attribute strings for every tour hosted in the process.
+ * A skater entered in several tours is one Skater object, and repeated strings such as stances and
+ * nationalities are only held once.
+ * @author SLS2024 contributors
+ * @version 19/10/2026
+ */
+public class AthleteDictionary {
+    private final HashMap<String, Skater> athletes; // identity key mapped to the single shared skater
+    private final HashMap<String, String> strings; // canonical copy of every attribute string
+
+    /** Constructor initialises an empty dictionary
+     */
+    public AthleteDictionary() {
+        athletes = new HashMap<>();
+        strings = new HashMap<>();
+    }
+
+    /** Gets the shared skater with these details, creating them if they have not been seen before
+     * @param nameIn: name of skater
+     * @param stanceIn: stance of skater (regular or goofy)
+     * @param nationalityIn: nationality of skater
+     * @param genderIn: gender of skater (male or female)
+     * @return Returns the one skater with these details
+     */
+    public synchronized Skater getOrCreate(String nameIn, String stanceIn, String nationalityIn, String genderIn) {
+        String key = nameIn.toLowerCase() + "|" + stanceIn.toLowerCase() + "|"
+                + nationalityIn.toUpperCase() + "|" + genderIn.toLowerCase();
+        Skater skater = athletes.get(key);
+        if (skater == null) {
+            skater = new Skater(intern(nameIn), intern(stanceIn), intern(nationalityIn), intern(genderIn));
+            athletes.put(key, skater);
+        }
+        return skater;
+    }
+
+    /** Gets the number of distinct athletes across all tours
+     * @return Returns the number of athletes in the dictionary
+     */
+    public synchronized int getTotal() {
+        return athletes.size();
+    }
+
+    private String intern(String value) {
+        String canonical = strings.putIfAbsent(value, value);
+        return canonical == null ? value : canonical;
+    }
+}
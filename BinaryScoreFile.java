@@ -0,0 +1,121 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/** Saves and loads the tour in a compact binary format with every score stored as a 16-bit centi-point value.
+ * Score records refer to skaters and contests by their position in the file, so nothing has to be looked up by name.
+ * From version 2 each score record is followed by its history, so revisions keep their numbers and times.
+ * @author SLS2024 contributors
+ * @version 19/10/2026
+ */
+public final class BinaryScoreFile {
+    private static final int MAGIC = 0x534C5342; // "SLSB"
+    private static final short FORMAT_VERSION = 2; // version 1 files had no histories and can still be read
+
+    private BinaryScoreFile() {
+        // only static helpers
+    }
+
+    /** Writes all contests, skaters and scores to a binary file
+     * @param file: the file to write to
+     * @param contestList: the contests to save
+     * @param skaterList: the skaters to save
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(File file, ContestList contestList, SkaterList skaterList) throws IOException {
+        contestList.ensureAllScoresLoaded();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+
+            out.writeInt(contestList.getTotal());
+            for (int i = 1; i <= contestList.getTotal(); i++) {
+                out.writeUTF(contestList.getContest(i).getLocation());
+                out.writeUTF(contestList.getContest(i).getDate());
+            }
+
+            out.writeInt(skaterList.getTotal());
+            for (int i = 1; i <= skaterList.getTotal(); i++) {
+                Skater skater = skaterList.getSkater(i);
+                out.writeUTF(skater.getName());
+                out.writeUTF(skater.getStance());
+                out.writeUTF(skater.getNationality());
+                out.writeUTF(skater.getGender());
+            }
+
+            // each score record is: contest index, skater index, number of scores, the scores as shorts, then the history
+            for (int i = 1; i <= contestList.getTotal(); i++) {
+                Contest contest = contestList.getContest(i);
+                for (int j = 1; j <= skaterList.getTotal(); j++) {
+                    short[] scores = skaterList.getSkater(j).getCentiScores(contest);
+                    if (scores != null && scores.length > 0) {
+                        out.writeInt(i - 1);
+                        out.writeInt(j - 1);
+                        out.writeByte(scores.length);
+                        for (short score : scores) {
+                            out.writeShort(score);
+                        }
+                        ScoreHistory history = skaterList.getSkater(j).getScoreHistory(contest);
+                        (history == null ? new ScoreHistory() : history).writeTo(out);
+                    }
+                }
+            }
+            out.writeInt(-1); // end of score records
+        }
+    }
+
+    /** Reads contests, skaters and scores from a binary file into the given lists. Loading is not a change, so
+     * nothing is published and the saved revisions are restored as they were.
+     * @param file: the file to read from
+     * @param contestList: the list the contests are added to
+     * @param skaterList: the list the skaters are added to
+     * @param athletes: the dictionary skaters are shared through
+     * @throws IOException if the file cannot be read or is not in this format
+     */
+    public static void load(File file, ContestList contestList, SkaterList skaterList, AthleteDictionary athletes) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not an SLS binary file: " + file);
+            }
+            short version = in.readShort();
+            if (version < 1 || version > FORMAT_VERSION) {
+                throw new IOException("Unsupported SLS binary file version: " + version);
+            }
+
+            Contest[] contests = new Contest[in.readInt()];
+            for (int i = 0; i < contests.length; i++) {
+                contests[i] = new Contest(in.readUTF(), in.readUTF());
+                contestList.addContest(contests[i]);
+            }
+
+            Skater[] skaters = new Skater[in.readInt()];
+            for (int i = 0; i < skaters.length; i++) {
+                skaters[i] = athletes.getOrCreate(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF());
+                skaterList.addSkater(skaters[i]);
+            }
+
+            int contestIndex;
+            while ((contestIndex = in.readInt()) != -1) {
+                int skaterIndex = in.readInt();
+                short[] scores = new short[in.readUnsignedByte()];
+                for (int k = 0; k < scores.length; k++) {
+                    scores[k] = in.readShort();
+                }
+                ScoreHistory history = version >= 2 ? ScoreHistory.readFrom(in) : null;
+                if (contestIndex >= contests.length || skaterIndex >= skaters.length) {
+                    throw new IOException("Score record refers to a missing skater or contest");
+                }
+                try {
+                    skaters[skaterIndex].loadScores(contests[contestIndex], scores, history);
+                } catch (IllegalArgumentException e) { // wrong number of scores or out of range
+                    throw new IOException("Invalid score record: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,349 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Consumer;
+
+/** Class used to run a contest with a large field as rounds of heats (e.g. qualifying heats, semis and a final).
+ * Skaters are seeded from their tour totals and then their most recent contest total, and spread over the heats
+ * of each round in serpentine order (1, 2, 3, 3, 2, 1, ...) so the heats are balanced. The top skaters of each heat
+ * go through to the next round, which is redrawn whenever a score changes who went through.
+ * Seedings and heat results are sorted as packed longs (score, then seed, then entrant) so even fields of
+ * thousands of skaters are regenerated in a few milliseconds.
+ * @author SLS2024 contributors
+ * @version 19/10/2026
+ */
+public class Bracket {
+    private static final int INDEX_BITS = 20; // up to about a million entrants
+    private static final int RECENT_BITS = 17; // a contest total is at most 7 x 10000 centi-points
+    private static final int MAX_ENTRANTS = 1 << INDEX_BITS;
+    private static final long INDEX_MASK = MAX_ENTRANTS - 1;
+    private static final int MAX_RECENT = (1 << RECENT_BITS) - 1;
+    private static final int MAX_TOTAL = (1 << 26) - 1; // the rest of the 63 bits, far more than any tour total
+    private static final int MAX_HEAT_SCORE = 7 * CentiScore.MAX; // a heat score is scored like a contest total
+
+    private final ContestList contestList;
+    private final Contest contest;
+    private final Skater[] entrants;
+    private final HashMap<Skater, Integer> indexes; // skater mapped to their place in entrants
+    private final int[] advancing; // how many go through from each heat of each round but the final
+    private final Round[] rounds;
+    private final int[] seedOrder; // entrant index of each seed, best first
+    private final int[] seedRanks; // seed of each entrant, 0 is the top seed
+    private volatile boolean stale; // a tour score has changed since the skaters were seeded
+    private int redrawFrom; // the first round that a heat score has changed since it was drawn
+    private ChangeFeed feed; // the feed listened to, null when not listening
+    private Consumer<List<ChangeEvent>> listener;
+
+    /** Constructor seeds the skaters and draws every round
+     * @param contestListIn: the tour's contests, used for seeding
+     * @param contestIn: the contest the heats are for (its own scores are not used for seeding)
+     * @param entrantsIn: the skaters entered
+     * @param heatSizes: the largest heat in each round, the last round is the final
+     * @param advancingIn: how many skaters go through from each heat of each round before the final
+     */
+    public Bracket(ContestList contestListIn, Contest contestIn, List<Skater> entrantsIn, int[] heatSizes, int[] advancingIn) {
+        if (entrantsIn.isEmpty() || entrantsIn.size() > MAX_ENTRANTS) {
+            throw new IllegalArgumentException("A bracket must have between 1 and " + MAX_ENTRANTS + " skaters.");
+        }
+        if (heatSizes.length == 0 || advancingIn.length != heatSizes.length - 1) {
+            throw new IllegalArgumentException("Each round except the final must say how many skaters go through from each heat.");
+        }
+        for (int i = 0; i < heatSizes.length; i++) {
+            if (heatSizes[i] < 1) {
+                throw new IllegalArgumentException("Heats must have at least 1 skater.");
+            }
+            if (i < advancingIn.length && (advancingIn[i] < 1 || advancingIn[i] > heatSizes[i])) {
+                throw new IllegalArgumentException("Between 1 and " + heatSizes[i] + " skaters can go through from each heat of round " + (i + 1) + ".");
+            }
+        }
+
+        contestList = contestListIn;
+        contest = contestIn;
+        entrants = entrantsIn.toArray(new Skater[0]);
+        indexes = new HashMap<>();
+        for (int i = 0; i < entrants.length; i++) {
+            if (indexes.put(entrants[i], i) != null) {
+                throw new IllegalArgumentException(entrants[i].getName() + " is entered more than once.");
+            }
+        }
+        advancing = advancingIn.clone();
+        rounds = new Round[heatSizes.length];
+        for (int i = 0; i < rounds.length; i++) {
+            rounds[i] = new Round(i + 1, i == rounds.length - 1 ? "Final" : "Round " + (i + 1), heatSizes[i]);
+        }
+        seedOrder = new int[entrants.length];
+        seedRanks = new int[entrants.length];
+        reseed();
+    }
+
+    /** Marks the seedings out of date whenever an entrant's score at another contest on the tour changes, so the
+     * rounds are redrawn the next time they are read
+     * @param feedIn: the tour's change feed, any feed listened to before is let go
+     */
+    public synchronized void listenTo(ChangeFeed feedIn) {
+        stopListening(); // only one feed at a time
+        listener = events -> {
+            for (ChangeEvent event : events) {
+                if ((event.getType() == ChangeEvent.Type.SCORES_UPDATED && event.getContest() != contest && indexes.containsKey(event.getSkater()))
+                        || event.getType() == ChangeEvent.Type.CONTEST_REMOVED) {
+                    stale = true;
+                }
+            }
+        };
+        feed = feedIn;
+        feed.addListener(listener);
+    }
+
+    /** Stops listening to the feed given to listenTo, so a finished bracket is no longer kept up to date or kept in memory by the tour
+     */
+    public synchronized void stopListening() {
+        if (feed != null) {
+            feed.removeListener(listener);
+            feed = null;
+            listener = null;
+        }
+    }
+
+    /** Seeds the skaters from the tour's current scores and redraws every round, keeping heat scores already entered
+     */
+    public synchronized void reseed() {
+        stale = false;
+        List<Contest> others = new ArrayList<>();
+        for (int i = 1; i <= contestList.getTotal(); i++) { // contests are kept in calendar order
+            if (contestList.getContest(i) != contest) {
+                others.add(contestList.getContest(i));
+            }
+        }
+
+        long[] keys = new long[entrants.length];
+        for (int i = 0; i < entrants.length; i++) {
+            int total = 0;
+            int recent = 0;
+            for (Contest other : others) {
+                int contestTotal = entrants[i].getTotalCentiScore(other);
+                total += contestTotal;
+                if (contestTotal > 0) {
+                    recent = contestTotal; // the last contest with scores is the most recent
+                }
+            }
+            // highest total first, then highest recent result, then the order they entered
+            keys[i] = ((long) (MAX_TOTAL - Math.min(total, MAX_TOTAL)) << (RECENT_BITS + INDEX_BITS))
+                    | ((long) (MAX_RECENT - Math.min(recent, MAX_RECENT)) << INDEX_BITS)
+                    | i;
+        }
+        Arrays.sort(keys);
+        for (int rank = 0; rank < keys.length; rank++) {
+            seedOrder[rank] = (int) (keys[rank] & INDEX_MASK);
+            seedRanks[seedOrder[rank]] = rank;
+        }
+
+        rounds[0].draw(seedOrder, seedOrder.length);
+        redrawFrom = 1;
+        redraw(rounds.length);
+    }
+
+    /** Records a skater's score in a heat, the rounds after it are redrawn the next time they are read
+     * @param roundNumber: the round the heat is in (1 is the first round)
+     * @param skater: the skater
+     * @param score: the skater's heat score in points
+     */
+    public synchronized void recordScore(int roundNumber, Skater skater, double score) {
+        Round round = getRound(roundNumber);
+        Integer index = indexes.get(skater);
+        if (index == null || round.heatOf[index] < 0) {
+            throw new IllegalArgumentException(skater.getName() + " is not in " + round.getName() + ".");
+        }
+        if (Double.isNaN(score) || score < 0 || Math.round(score * CentiScore.SCALE) > MAX_HEAT_SCORE) {
+            throw new IllegalArgumentException("Heat scores must be between 0.0 and " + CentiScore.toDouble(MAX_HEAT_SCORE) + ".");
+        }
+        round.scores[index] = (int) Math.round(score * CentiScore.SCALE);
+        redrawFrom = Math.min(redrawFrom, roundNumber); // the round after this one, counting from 0
+    }
+
+    /** Gets a round, reseeding or redrawing first if a score has changed
+     * @param roundNumber: the round (1 is the first round, the last is the final)
+     * @return Returns the round
+     */
+    public synchronized Round getRound(int roundNumber) {
+        if (roundNumber < 1 || roundNumber > rounds.length) {
+            throw new IllegalArgumentException("There is no round " + roundNumber + ".");
+        }
+        refresh(roundNumber);
+        return rounds[roundNumber - 1];
+    }
+
+    /** Gets the number of rounds
+     * @return Returns the number of rounds, including the final
+     */
+    public int getRoundCount() {
+        return rounds.length;
+    }
+
+    /** Gets a skater's seed, reseeding first if a tour score has changed
+     * @param skater: the skater
+     * @return Returns the seed (1 is the top seed), or 0 if the skater is not entered
+     */
+    public synchronized int getSeed(Skater skater) {
+        if (stale) {
+            reseed();
+        }
+        Integer index = indexes.get(skater);
+        return index == null ? 0 : seedRanks[index] + 1;
+    }
+
+    private void refresh(int roundNumber) { // bring a round up to date before it is read
+        if (stale) {
+            reseed();
+        }
+        redraw(roundNumber);
+    }
+
+    private void redraw(int upTo) { // redraw the rounds that are out of date, up to (not including) this index
+        for (int r = redrawFrom; r < upTo; r++) {
+            advance(rounds[r - 1], advancing[r - 1], rounds[r]);
+        }
+        redrawFrom = Math.max(redrawFrom, upTo);
+    }
+
+    private void advance(Round from, int perHeat, Round to) {
+        long[] keys = new long[from.size];
+        long[] through = new long[from.size];
+        int count = 0;
+        for (int h = 0; h < from.heatCount; h++) {
+            int start = from.heatStarts[h];
+            int end = from.heatStarts[h + 1];
+            for (int k = start; k < end; k++) {
+                int entrant = from.lineup[k];
+                // highest heat score first (skaters without a score last), ties go to the higher seed
+                keys[k] = ((long) Integer.MAX_VALUE - from.scores[entrant]) << INDEX_BITS | seedRanks[entrant];
+            }
+            Arrays.sort(keys, start, end);
+            int take = Math.min(perHeat, end - start);
+            System.arraycopy(keys, start, through, count, take);
+            count += take;
+        }
+
+        Arrays.sort(through, 0, count); // the next round is seeded by heat score, then by seed
+        int[] order = new int[count];
+        for (int k = 0; k < count; k++) {
+            order[k] = seedOrder[(int) (through[k] & INDEX_MASK)];
+        }
+        to.draw(order, count);
+    }
+
+    /** One round of heats, brought up to date whenever it is read
+     */
+    public class Round {
+        private final int number;
+        private final String name;
+        private final int heatSize;
+        private final int[] scores; // each entrant's heat score in centi-points, -1 if none
+        private final int[] heatOf; // the heat each entrant is in, -1 if they are not in this round
+        private int[] lineup; // entrant indexes grouped by heat, in the order the round was drawn (by seed in the first round, then by heat score and seed)
+        private int[] heatStarts; // where each heat starts in lineup, with the size at the end
+        private int heatCount;
+        private int size;
+
+        Round(int numberIn, String nameIn, int heatSizeIn) {
+            number = numberIn;
+            name = nameIn;
+            heatSize = heatSizeIn;
+            scores = new int[entrants.length];
+            Arrays.fill(scores, -1); // scores stay with the skater if the round is redrawn, so late changes don't lose them
+            heatOf = new int[entrants.length];
+            Arrays.fill(heatOf, -1);
+            lineup = new int[0];
+            heatStarts = new int[1];
+        }
+
+        private void draw(int[] order, int count) {
+            for (int k = 0; k < size; k++) {
+                heatOf[lineup[k]] = -1;
+            }
+            size = count;
+            heatCount = (count + heatSize - 1) / heatSize;
+            lineup = new int[count];
+            heatStarts = new int[heatCount + 1];
+
+            for (int k = 0; k < count; k++) { // serpentine: 1, 2, ..., n, n, ..., 2, 1, 1, 2, ...
+                int row = k / heatCount;
+                int column = k % heatCount;
+                int heat = row % 2 == 0 ? column : heatCount - 1 - column;
+                heatOf[order[k]] = heat;
+                heatStarts[heat + 1]++;
+            }
+            for (int h = 0; h < heatCount; h++) {
+                heatStarts[h + 1] += heatStarts[h];
+            }
+            int[] next = Arrays.copyOf(heatStarts, heatCount);
+            for (int k = 0; k < count; k++) {
+                lineup[next[heatOf[order[k]]]++] = order[k];
+            }
+        }
+
+        /** Reads the name of the round
+         * @return Returns the name of the round
+         */
+        public String getName() {
+            return name;
+        }
+
+        /** Gets the number of heats in the round
+         * @return Returns the number of heats
+         */
+        public int getHeatCount() {
+            synchronized (Bracket.this) {
+                refresh(number);
+                return heatCount;
+            }
+        }
+
+        /** Gets the skaters in a heat
+         * @param heatNumber: the heat (1 is the first heat)
+         * @return Returns the skaters in draw order: by seed in the first round, and in later rounds by their score in
+         * the previous round's heats with ties going to the higher seed
+         */
+        public List<Skater> getHeat(int heatNumber) {
+            synchronized (Bracket.this) {
+                refresh(number);
+                if (heatNumber < 1 || heatNumber > heatCount) {
+                    throw new IllegalArgumentException("There is no heat " + heatNumber + " in " + name + ".");
+                }
+                List<Skater> heat = new ArrayList<>();
+                for (int k = heatStarts[heatNumber - 1]; k < heatStarts[heatNumber]; k++) {
+                    heat.add(entrants[lineup[k]]);
+                }
+                return heat;
+            }
+        }
+
+        /** Reads a skater's score in this round
+         * @param skater: the skater
+         * @return Returns the heat score in points, or -1 if they have no score
+         */
+        public double getScore(Skater skater) {
+            synchronized (Bracket.this) {
+                Integer index = indexes.get(skater);
+                return index == null || scores[index] < 0 ? -1 : scores[index] / (double) CentiScore.SCALE;
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(name + ":");
+            for (int h = 1; h <= getHeatCount(); h++) {
+                sb.append(System.lineSeparator()).append("  Heat ").append(h).append(": ");
+                List<Skater> heat = getHeat(h);
+                for (int k = 0; k < heat.size(); k++) {
+                    sb.append(k == 0 ? "" : ", ").append(heat.get(k).getName());
+                    double score = getScore(heat.get(k));
+                    if (score >= 0) {
+                        sb.append(" ").append(String.format("%.2f", score));
+                    }
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
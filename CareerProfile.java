@@ -0,0 +1,174 @@
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** Running summary of one skater's results on one tour, updated each time their scores are added, corrected or
+ * removed so an athlete page never has to go back through every contest. A skater on several tours has a profile
+ * for each, kept by the Tour.
+ * @author SLS2024 contributors
+ * @version 19/10/2026
+ */
+public class CareerProfile {
+    private static final int NUM_RUNS = 2; // the first 2 of the 7 scores are runs, the other 5 are tricks
+
+    private final ContestList contestList; // the tour's calendar, which orders the trend
+    private final HashMap<Contest, Entry> entries; // each contest entered
+    private final TreeMap<Short, Integer> bestRuns; // each contest's best run with how many contests have it
+    private final TreeMap<Short, Integer> bestTricks; // each contest's best trick with how many contests have it
+    private long totalSum; // sum of every contest total in centi-points
+
+    /** Constructor initialises an empty profile
+     * @param contestListIn: the contests of the tour the profile is for
+     */
+    public CareerProfile(ContestList contestListIn) {
+        contestList = contestListIn;
+        entries = new HashMap<>();
+        bestRuns = new TreeMap<>();
+        bestTricks = new TreeMap<>();
+    }
+
+    /** Updates the profile with a skater's scores at a contest, replacing that contest's earlier scores if there were any
+     * @param contest: the contest the scores are for
+     * @param scores: the scores in centi-points
+     */
+    public synchronized void record(Contest contest, short[] scores) {
+        short bestRun = 0;
+        short bestTrick = 0;
+        for (int i = 0; i < scores.length; i++) {
+            if (i < NUM_RUNS) {
+                bestRun = (short) Math.max(bestRun, scores[i]);
+            } else {
+                bestTrick = (short) Math.max(bestTrick, scores[i]);
+            }
+        }
+
+        Entry old = entries.get(contest);
+        if (old != null) { // a correction, take the old figures out rather than recomputing everything
+            totalSum -= old.total;
+            decrement(bestRuns, old.bestRun);
+            decrement(bestTricks, old.bestTrick);
+        }
+
+        Entry entry = new Entry(CentiScore.sum(scores), bestRun, bestTrick);
+        entries.put(contest, entry);
+        totalSum += entry.total;
+        bestRuns.merge(bestRun, 1, Integer::sum);
+        bestTricks.merge(bestTrick, 1, Integer::sum);
+    }
+
+    /** Takes a contest out of the profile, when it is removed from the tour or the skater's scores there are removed
+     * @param contest: the contest to forget
+     */
+    public synchronized void forget(Contest contest) {
+        Entry old = entries.remove(contest);
+        if (old != null) {
+            totalSum -= old.total;
+            decrement(bestRuns, old.bestRun);
+            decrement(bestTricks, old.bestTrick);
+        }
+    }
+
+    /** Gets the number of contests the skater has scores for
+     * @return Returns the number of contests entered
+     */
+    public synchronized int getContestsEntered() {
+        return entries.size();
+    }
+
+    /** Gets the skater's best run score across every contest
+     * @return Returns the best run in points, or 0 if they have not competed
+     */
+    public synchronized double getSeasonBestRun() {
+        return bestRuns.isEmpty() ? 0 : CentiScore.toDouble(bestRuns.lastKey());
+    }
+
+    /** Gets the skater's best trick score across every contest
+     * @return Returns the best trick in points, or 0 if they have not competed
+     */
+    public synchronized double getSeasonBestTrick() {
+        return bestTricks.isEmpty() ? 0 : CentiScore.toDouble(bestTricks.lastKey());
+    }
+
+    /** Gets the skater's average contest total
+     * @return Returns the average total in points, or 0 if they have not competed
+     */
+    public synchronized double getAverageScore() {
+        return entries.isEmpty() ? 0 : totalSum / (double) entries.size() / CentiScore.SCALE;
+    }
+
+    /** Gets the skater's best finishing position, looked up from each contest's ranking of totals as the other
+     * skaters' results can change it
+     * @return Returns the best position (1 is first), or 0 if they have not competed
+     */
+    public int getBestFinish() {
+        Map<Contest, Entry> current;
+        synchronized (this) {
+            current = new HashMap<>(entries);
+        }
+        int best = 0;
+        for (Map.Entry<Contest, Entry> e : current.entrySet()) {
+            int position = e.getKey().getStatistics().getPosition(e.getValue().total);
+            if (best == 0 || position < best) {
+                best = position;
+            }
+        }
+        return best;
+    }
+
+    /** Gets the skater's total at each contest they entered, in calendar order
+     * @return Returns a copy of the trend, each contest mapped to the total in points
+     */
+    public LinkedHashMap<Contest, Double> getTrend() {
+        Map<Contest, Entry> current;
+        synchronized (this) { // the calendar is read after letting go, like getBestFinish
+            current = new HashMap<>(entries);
+        }
+        LinkedHashMap<Contest, Double> trend = new LinkedHashMap<>();
+        for (int i = 1; i <= contestList.getTotal(); i++) {
+            Entry entry = current.get(contestList.getContest(i));
+            if (entry != null) {
+                trend.put(contestList.getContest(i), CentiScore.toDouble(entry.total));
+            }
+        }
+        return trend;
+    }
+
+    private static void decrement(TreeMap<Short, Integer> counts, short key) {
+        if (counts.merge(key, -1, Integer::sum) == 0) {
+            counts.remove(key);
+        }
+    }
+
+    @Override
+    public String toString() { // not synchronized as getBestFinish reads the contests, which must not be done holding this lock
+        StringBuilder trend = new StringBuilder();
+        for (Map.Entry<Contest, Double> e : getTrend().entrySet()) {
+            if (trend.length() > 0) {
+                trend.append(", ");
+            }
+            trend.append(e.getKey().getLocation().toUpperCase()).append(" ").append(String.format("%.2f", e.getValue()));
+        }
+        int bestFinish = getBestFinish();
+        return "Contests entered: " + getContestsEntered()
+                + ", Best run: " + String.format("%.2f", getSeasonBestRun())
+                + ", Best trick: " + String.format("%.2f", getSeasonBestTrick())
+                + ", Average score: " + String.format("%.2f", getAverageScore())
+                + ", Best finish: " + (bestFinish == 0 ? "-" : String.valueOf(bestFinish))
+                + ", Trend: [" + trend + "]";
+    }
+
+    /** The figures kept for one contest
+     */
+    private static class Entry {
+        private final int total;
+        private final short bestRun;
+        private final short bestTrick;
+
+        Entry(int totalIn, short bestRunIn, short bestTrickIn) {
+            total = totalIn;
+            bestRun = bestRunIn;
+            bestTrick = bestTrickIn;
+        }
+    }
+}
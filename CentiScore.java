@@ -0,0 +1,81 @@
+/** Helper class for storing scores as whole numbers of centi-points (hundredths of a point) in a 16-bit short.
+ * A score of 0.00-100.00 becomes 0-10000, so totals can be summed and compared exactly with integers and only
+ * turned back into decimals for display and the text save file.
+ * @author SLS2024 contributors
+ * @version 19/10/2026
+ */
+public final class CentiScore {
+    public static final int SCALE = 100; // centi-points per point
+    public static final short MAX = 10000; // 100.00 points
+
+    private CentiScore() {
+        // only static helpers
+    }
+
+    /** Converts a score in points to centi-points, rounding to the nearest hundredth
+     * @param score: the score in points (0.0-100.0)
+     * @return Returns the score in centi-points
+     */
+    public static short fromDouble(double score) {
+        if (Double.isNaN(score)) { // Math.round would quietly turn this into 0
+            throw new IllegalArgumentException("Scores must be between 0.0 and 100.0.");
+        }
+        long centi = Math.round(score * SCALE);
+        if (centi < 0 || centi > MAX) {
+            throw new IllegalArgumentException("Scores must be between 0.0 and 100.0.");
+        }
+        return (short) centi;
+    }
+
+    /** Converts centi-points back to points
+     * @param centi: a score or total in centi-points
+     * @return Returns the value in points
+     */
+    public static double toDouble(int centi) {
+        return centi / (double) SCALE;
+    }
+
+    /** Converts an array of scores in points to centi-points
+     * @param scores: the scores in points
+     * @return Returns a new array of the scores in centi-points
+     */
+    public static short[] encode(Double[] scores) {
+        short[] centi = new short[scores.length];
+        for (int i = 0; i < scores.length; i++) {
+            centi[i] = fromDouble(scores[i]);
+        }
+        return centi;
+    }
+
+    /** Converts an array of centi-point scores back to points
+     * @param centi: the scores in centi-points
+     * @return Returns a new array of the scores in points
+     */
+    public static Double[] decode(short[] centi) {
+        Double[] scores = new Double[centi.length];
+        for (int i = 0; i < centi.length; i++) {
+            scores[i] = toDouble(centi[i]);
+        }
+        return scores;
+    }
+
+    /** Adds up an array of centi-point scores exactly
+     * @param centi: the scores in centi-points
+     * @return Returns the total in centi-points
+     */
+    public static int sum(short[] centi) {
+        int total = 0;
+        for (short score : centi) {
+            total += score;
+        }
+        return total;
+    }
+
+    /** Formats centi-points with exactly two decimal places for display
+     * @param centi: a score or total in centi-points
+     * @return Returns the value as a string such as "280.75"
+     */
+    public static String format(int centi) {
+        return (centi < 0 ? "-" : "") + Math.abs(centi) / SCALE + "." + String.format("%02d", Math.abs(centi) % SCALE);
+    }
+}
@@ -0,0 +1,166 @@
+import java.util.Arrays;
+
+/** Class used to describe a single change made to the contests, skaters or scores of the tour
+ * @author SLS2024 contributors
+ * @version 19/10/2026
+ */
+public class ChangeEvent {
+
+    /** The kinds of change that can be published on a ChangeFeed
+     */
+    public enum Type {
+        CONTEST_ADDED,
+        CONTEST_REMOVED,
+        SKATER_ADDED,
+        SKATER_REMOVED,
+        SCORES_UPDATED,
+        EVENTS_DROPPED // only sent to a subscriber that fell behind, in place of the events it lost
+    }
+
+    private final Type type;
+    private final Contest contest;
+    private final Skater skater;
+    private final short[] previousScores; // in centi-points
+    private final short[] scores; // in centi-points
+    private final int droppedCount;
+    private final long timestamp;
+
+    /** Constructor initialises the event, use the static factory methods to create one
+     * @param typeIn: the kind of change
+     * @param contestIn: the contest affected (null for roster changes)
+     * @param skaterIn: the skater affected (null for calendar changes)
+     * @param previousScoresIn: the scores before the change (null if there were none)
+     * @param scoresIn: the scores after the change (null if not a score change)
+     */
+    private ChangeEvent(Type typeIn, Contest contestIn, Skater skaterIn, short[] previousScoresIn, short[] scoresIn) {
+        this(typeIn, contestIn, skaterIn, previousScoresIn, scoresIn, 0);
+    }
+
+    private ChangeEvent(Type typeIn, Contest contestIn, Skater skaterIn, short[] previousScoresIn, short[] scoresIn, int droppedCountIn) {
+        type = typeIn;
+        contest = contestIn;
+        skater = skaterIn;
+        previousScores = previousScoresIn;
+        scores = scoresIn;
+        droppedCount = droppedCountIn;
+        timestamp = System.currentTimeMillis();
+    }
+
+    /** Creates an event for a contest being added to the calendar
+     * @param contest: the contest that was added
+     * @return Returns the new event
+     */
+    public static ChangeEvent contestAdded(Contest contest) {
+        return new ChangeEvent(Type.CONTEST_ADDED, contest, null, null, null);
+    }
+
+    /** Creates an event for a contest being removed from the calendar
+     * @param contest: the contest that was removed
+     * @return Returns the new event
+     */
+    public static ChangeEvent contestRemoved(Contest contest) {
+        return new ChangeEvent(Type.CONTEST_REMOVED, contest, null, null, null);
+    }
+
+    /** Creates an event for a skater being added to the roster
+     * @param skater: the skater that was added
+     * @return Returns the new event
+     */
+    public static ChangeEvent skaterAdded(Skater skater) {
+        return new ChangeEvent(Type.SKATER_ADDED, null, skater, null, null);
+    }
+
+    /** Creates an event for a skater being removed from the roster
+     * @param skater: the skater that was removed
+     * @return Returns the new event
+     */
+    public static ChangeEvent skaterRemoved(Skater skater) {
+        return new ChangeEvent(Type.SKATER_REMOVED, null, skater, null, null);
+    }
+
+    /** Creates an event for a skater's scores at a contest being added or overwritten
+     * @param skater: the skater whose scores changed
+     * @param contest: the contest the scores belong to
+     * @param previousScores: the scores in centi-points that were replaced, or null if this is the first entry
+     * @param scores: the new scores in centi-points
+     * @return Returns the new event
+     */
+    public static ChangeEvent scoresUpdated(Skater skater, Contest contest, short[] previousScores, short[] scores) {
+        return new ChangeEvent(Type.SCORES_UPDATED, contest, skater,
+                previousScores == null ? null : previousScores.clone(), scores.clone());
+    }
+
+    /** Creates the marker a subscriber is sent after its buffer overflowed, so it knows it missed changes and
+     * has to resynchronise rather than keep applying deltas
+     * @param droppedCount: how many events the subscriber lost
+     * @return Returns the new event
+     */
+    public static ChangeEvent eventsDropped(int droppedCount) {
+        return new ChangeEvent(Type.EVENTS_DROPPED, null, null, null, null, droppedCount);
+    }
+
+    /** Reads the type of change
+     * @return Returns the type of the event
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /** Reads the contest affected by the change
+     * @return Returns the contest, or null if the change was to the roster only
+     */
+    public Contest getContest() {
+        return contest;
+    }
+
+    /** Reads the skater affected by the change
+     * @return Returns the skater, or null if the change was to the calendar only
+     */
+    public Skater getSkater() {
+        return skater;
+    }
+
+    /** Reads the scores that were replaced by a score change
+     * @return Returns a copy of the previous scores in centi-points, or null if there were none
+     */
+    public short[] getPreviousScores() {
+        return previousScores == null ? null : previousScores.clone();
+    }
+
+    /** Reads the scores after a score change
+     * @return Returns a copy of the new scores in centi-points, or null if this is not a score change
+     */
+    public short[] getScores() {
+        return scores == null ? null : scores.clone();
+    }
+
+    /** Reads how many events were lost before an EVENTS_DROPPED marker
+     * @return Returns the number of events dropped, or 0 for any other type of event
+     */
+    public int getDroppedCount() {
+        return droppedCount;
+    }
+
+    /** Reads the time the change was made
+     * @return Returns the time of the change in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case CONTEST_ADDED:
+            case CONTEST_REMOVED:
+                return type + " " + contest;
+            case SKATER_ADDED:
+            case SKATER_REMOVED:
+                return type + " " + skater;
+            case EVENTS_DROPPED:
+                return type + " " + droppedCount;
+            default:
+                return type + " " + skater.getName() + " @ " + contest.getLocation() + ": " + Arrays.toString(CentiScore.decode(scores));
+        }
+    }
+}
@@ -0,0 +1,344 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/** Publisher that streams ChangeEvents to subscribers such as the scoreboard, results exporter and stats service.
+ * Every subscriber gets its own bounded buffer and is only sent batches when it has requested them. When a
+ * subscriber falls behind and its buffer fills up, the oldest events are dropped for that subscriber only,
+ * so publishing never waits on a consumer and score entry is never held up. The next batch that subscriber
+ * receives then starts with an EVENTS_DROPPED marker, so anything applying the events as deltas knows to
+ * resynchronise (for example from Tour.snapshot) instead of drifting.
+ * @author SLS2024 contributors
+ * @version 19/10/2026
+ */
+public class ChangeFeed implements Flow.Publisher<List<ChangeEvent>>, AutoCloseable {
+    public static final int DEFAULT_BUFFER = 256; // events held per subscriber before the oldest are dropped
+
+    private final CopyOnWriteArrayList<FeedSubscription> subscriptions;
+    private final CopyOnWriteArrayList<Consumer<List<ChangeEvent>>> listeners; // told straight away on the publishing thread
+    private final ThreadLocal<List<ChangeEvent>> pending; // events held back by publishAsBatch on each thread
+    private final ExecutorService deliveryExecutor; // delivers batches so slow subscribers run off the publishing thread
+    private final ScheduledExecutorService windowExecutor; // closes batching windows
+    private final AtomicLong dropped;
+    private final Predicate<ChangeEvent> filter; // events that fail this are not published
+    private volatile boolean closed;
+
+    /** Constructor initialises an empty feed with no subscribers that publishes every event
+     */
+    public ChangeFeed() {
+        this(event -> true);
+    }
+
+    /** Constructor initialises an empty feed with no subscribers that only publishes some events
+     * @param filterIn: decides which events are published
+     */
+    public ChangeFeed(Predicate<ChangeEvent> filterIn) {
+        filter = filterIn;
+        subscriptions = new CopyOnWriteArrayList<>();
+        listeners = new CopyOnWriteArrayList<>();
+        pending = new ThreadLocal<>();
+        deliveryExecutor = Executors.newCachedThreadPool(daemonThreads("change-feed"));
+        windowExecutor = Executors.newSingleThreadScheduledExecutor(daemonThreads("change-feed-window"));
+        dropped = new AtomicLong();
+    }
+
+    /** Subscribes with the default buffer size and no batching window
+     * @param subscriber: the subscriber that will receive batches of events
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<ChangeEvent>> subscriber) {
+        subscribe(subscriber, DEFAULT_BUFFER, 0);
+    }
+
+    /** Subscribes with a chosen buffer size and batching window
+     * @param subscriber: the subscriber that will receive batches of events
+     * @param bufferCapacity: the most events held for this subscriber before the oldest are dropped
+     * @param batchWindowMillis: how long to gather events into one batch before delivering it (0 to deliver straight away)
+     */
+    public void subscribe(Flow.Subscriber<? super List<ChangeEvent>> subscriber, int bufferCapacity, long batchWindowMillis) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber cannot be null");
+        }
+        if (bufferCapacity < 1) {
+            throw new IllegalArgumentException("Buffer capacity must be at least 1");
+        }
+        if (batchWindowMillis < 0) {
+            throw new IllegalArgumentException("Batching window cannot be negative");
+        }
+
+        FeedSubscription subscription = new FeedSubscription(subscriber, bufferCapacity, batchWindowMillis);
+        subscriber.onSubscribe(subscription);
+        subscriptions.add(subscription);
+        if (closed) { // closed before or while we were adding, close may have missed us (completing twice is harmless)
+            subscriptions.remove(subscription);
+            subscription.complete();
+        }
+    }
+
+    /** Adds a listener that is called on the publishing thread before the events are queued for subscribers.
+     * This is for quick in-memory bookkeeping that has to stay in step with the model (such as VersionedModel),
+     * anything slow should subscribe instead. Events published together by publishAsBatch arrive in one call.
+     * A listener that throws is reported and skipped, the other listeners and subscribers are still told.
+     * @param listener: the listener to call with every published batch of events
+     */
+    public void addListener(Consumer<List<ChangeEvent>> listener) {
+        listeners.add(listener);
+    }
+
+    /** Removes a listener added with addListener, it is not called for anything published after this returns
+     * @param listener: the listener to remove
+     */
+    public void removeListener(Consumer<List<ChangeEvent>> listener) {
+        listeners.remove(listener);
+    }
+
+    /** Publishes an event to every listener and subscriber, this never blocks on a subscriber.
+     * Inside publishAsBatch the event is held back until the batch is finished.
+     * @param event: the change to publish
+     */
+    public void publish(ChangeEvent event) {
+        if (closed || !filter.test(event)) {
+            return;
+        }
+        List<ChangeEvent> batch = pending.get();
+        if (batch != null) {
+            batch.add(event);
+        } else {
+            deliver(Collections.singletonList(event));
+        }
+    }
+
+    /** Makes some changes and publishes every event they cause as one batch once they are all made, so listeners
+     * and subscribers see all of the changes or none of them. Only events published on the calling thread are held back,
+     * and if the changes fail partway the events for what was changed are still published.
+     * @param changes: the changes to make
+     */
+    public void publishAsBatch(Runnable changes) {
+        if (pending.get() != null) { // already inside a batch, which will publish these too
+            changes.run();
+            return;
+        }
+        List<ChangeEvent> batch = new ArrayList<>();
+        pending.set(batch);
+        try {
+            changes.run();
+        } finally {
+            pending.remove();
+            if (!batch.isEmpty() && !closed) {
+                deliver(Collections.unmodifiableList(batch));
+            }
+        }
+    }
+
+    private void deliver(List<ChangeEvent> events) {
+        for (Consumer<List<ChangeEvent>> listener : listeners) {
+            try {
+                listener.accept(events);
+            } catch (RuntimeException e) { // the change has already been made, so a broken listener must not stop the rest hearing about it
+                System.out.println("A change listener failed: " + e);
+            }
+        }
+        for (FeedSubscription subscription : subscriptions) {
+            subscription.offer(events);
+        }
+    }
+
+    /** Reads the number of subscribers currently attached
+     * @return Returns the number of subscribers
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /** Reads how many events have been dropped because a subscriber's buffer was full
+     * @return Returns the total number of dropped events across all subscribers
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /** Stops publishing and completes every subscriber once its buffered events have been delivered
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (FeedSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+        subscriptions.clear();
+        windowExecutor.shutdown(); // windows that are already open still close and deliver
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true); // never keep the application open just to deliver events
+            return thread;
+        };
+    }
+
+    /** Subscription for a single subscriber holding its buffer and outstanding demand
+     */
+    private final class FeedSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super List<ChangeEvent>> subscriber;
+        private final int capacity;
+        private final long windowMillis;
+        private final ArrayDeque<ChangeEvent> buffer; // guarded by this
+        private final AtomicInteger wip; // serialises delivery so onNext is never called concurrently
+        private long requested; // guarded by this
+        private boolean windowOpen; // guarded by this
+        private int lost; // events dropped since the last batch, guarded by this
+        private volatile Throwable error; // delivered by the draining thread so it never overlaps onNext
+        private volatile boolean completed;
+        private volatile boolean cancelled;
+        private boolean terminated; // only touched by the draining thread
+
+        FeedSubscription(Flow.Subscriber<? super List<ChangeEvent>> subscriberIn, int capacityIn, long windowMillisIn) {
+            subscriber = subscriberIn;
+            capacity = capacityIn;
+            windowMillis = windowMillisIn;
+            buffer = new ArrayDeque<>(Math.min(capacityIn, 64));
+            wip = new AtomicInteger();
+        }
+
+        void offer(List<ChangeEvent> events) {
+            if (cancelled || completed) {
+                return;
+            }
+            boolean openWindow = false;
+            synchronized (this) { // a whole batch goes in at once, so a delivery never takes part of it
+                for (ChangeEvent event : events) {
+                    if (buffer.size() == capacity) { // slow subscriber, lose its oldest event rather than wait
+                        buffer.pollFirst();
+                        lost++;
+                        dropped.incrementAndGet();
+                    }
+                    buffer.addLast(event);
+                }
+                if (windowMillis > 0 && !windowOpen) {
+                    windowOpen = true;
+                    openWindow = true;
+                }
+            }
+            if (openWindow) {
+                try {
+                    windowExecutor.schedule(this::closeWindow, windowMillis, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) { // the feed closed while we were publishing, deliver now instead
+                    closeWindow();
+                }
+            } else if (windowMillis == 0) {
+                signal();
+            }
+        }
+
+        void complete() {
+            completed = true;
+            synchronized (this) {
+                windowOpen = false; // flush anything still waiting on a window
+            }
+            signal();
+        }
+
+        private void closeWindow() {
+            synchronized (this) {
+                windowOpen = false;
+            }
+            signal();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) { // the error is sent from the draining thread in case onNext is running right now
+                error = new IllegalArgumentException("Requested demand must be positive: " + n);
+                signal();
+                return;
+            }
+            synchronized (this) {
+                requested = requested + n < 0 ? Long.MAX_VALUE : requested + n; // cap on overflow
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            synchronized (this) {
+                buffer.clear();
+            }
+        }
+
+        private void signal() {
+            if (wip.getAndIncrement() == 0) {
+                deliveryExecutor.execute(this::drain);
+            }
+        }
+
+        private synchronized List<ChangeEvent> nextBatch() {
+            if (cancelled || requested == 0 || buffer.isEmpty() || windowOpen) {
+                return null;
+            }
+            List<ChangeEvent> batch = new ArrayList<>(buffer.size() + 1); // hand over everything buffered as one batch of deltas
+            if (lost > 0) { // the dropped events were older than anything still buffered, so the marker goes first
+                batch.add(ChangeEvent.eventsDropped(lost));
+                lost = 0;
+            }
+            batch.addAll(buffer);
+            buffer.clear();
+            if (requested != Long.MAX_VALUE) {
+                requested--;
+            }
+            return batch;
+        }
+
+        private void drain() {
+            int missed = 1;
+            while (true) {
+                if (error != null && !terminated) {
+                    terminated = true;
+                    cancel();
+                    subscriber.onError(error);
+                    return;
+                }
+                List<ChangeEvent> batch;
+                while (error == null && (batch = nextBatch()) != null) {
+                    try {
+                        subscriber.onNext(batch);
+                    } catch (Throwable t) { // a misbehaving subscriber must not break the feed for anyone else
+                        cancel();
+                        subscriber.onError(t);
+                        return;
+                    }
+                }
+
+                boolean drained;
+                synchronized (this) {
+                    drained = buffer.isEmpty();
+                }
+                if (completed && drained && !cancelled && !terminated) {
+                    terminated = true;
+                    subscriber.onComplete();
+                }
+
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -5,6 +5,8 @@
 public class Contest {
     private final String location;
     private final String date;
+    private ScoreIndex scoreIndex; // set when this contest's scores are still on disk waiting to be loaded
+    private final ContestStatistics statistics; // running statistics of every score entered at this contest
 
     /** Constructor initialises the location and date of the contest
      * @param locationIn: location of the contest
@@ -13,6 +15,7 @@ public class Contest {
     public Contest(String locationIn, String dateIn) {
         location = locationIn;
         date = dateIn;
+        statistics = new ContestStatistics();
     }
 
     /** Reads the location
@@ -29,6 +32,39 @@ public class Contest {
         return date;
     }
 
+    /** Reads the running statistics of the scores entered at this contest
+     * @return Returns the statistics for the contest
+     */
+    public ContestStatistics getStatistics() {
+        ensureScoresLoaded();
+        return statistics;
+    }
+
+    /** Updates the statistics when a skater's scores at this contest are added, overwritten or removed
+     * @param previous: the scores being replaced in centi-points, or null if there were none
+     * @param scores: the new scores in centi-points, or null if the skater's scores are being removed
+     */
+    void recordScores(short[] previous, short[] scores) {
+        statistics.replace(previous, scores);
+    }
+
+    /** Sets the index used to load this contest's scores the first time they are needed
+     * @param indexIn: the index holding this contest's score records
+     */
+    synchronized void setScoreIndex(ScoreIndex indexIn) {
+        scoreIndex = indexIn;
+    }
+
+    /** Loads this contest's scores from the file if they have not been loaded yet, does nothing otherwise
+     */
+    public synchronized void ensureScoresLoaded() {
+        if (scoreIndex != null) {
+            ScoreIndex index = scoreIndex;
+            scoreIndex = null; // cleared first as loading adds scores back through this contest
+            index.loadScores(this);
+        }
+    }
+
     /** Overriding to create a neater way of printing a Contest
      * @return Returns the formatted string with the location and date
      */
@@ -8,6 +8,7 @@ public class ContestList {
     // Attributes
     private final ArrayList<Contest> contestList;
     public final int MAX = 8; // There are only 8 stops on an SLS tour
+    private ChangeFeed changeFeed; // optional feed that is told about every contest added or removed
 
     /** Constructor initiates the ArrayList
      */
@@ -15,6 +16,13 @@ public class ContestList {
         contestList = new ArrayList<>();
     }
 
+    /** Sets the feed that changes to the list are published on
+     * @param feedIn: the feed to publish to, or null to stop publishing
+     */
+    public void setChangeFeed(ChangeFeed feedIn) {
+        changeFeed = feedIn;
+    }
+
     /** Checks if the contest list is full
      * @return Returns true if the list has reached 8 (maximum capacity)
      */
@@ -43,6 +51,9 @@ public class ContestList {
     public boolean addContest(Contest cIn) {
         if (!isFull()) {
             contestList.add(cIn);
+            if (changeFeed != null) {
+                changeFeed.publish(ChangeEvent.contestAdded(cIn));
+            }
             return true;
         } else {
             System.out.println("List full, cannot add: " + cIn);
@@ -55,7 +66,10 @@ public class ContestList {
      */
     public void removeContest(int index) {
         if (index >= 0 && index < getTotal()) {
-            contestList.remove(index);
+            Contest removed = contestList.remove(index);
+            if (changeFeed != null) {
+                changeFeed.publish(ChangeEvent.contestRemoved(removed));
+            }
             System.out.println("Contest removed from list...");
         } else {
             System.out.println("Invalid index!");
@@ -77,6 +91,19 @@ public class ContestList {
         }
     }
 
+    /** Checks if a contest is in this list
+     * @param contest: the contest to look for
+     * @return Returns true if this exact contest is in the list
+     */
+    public boolean containsContest(Contest contest) {
+        for (Contest c : contestList) {
+            if (c == contest) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /** Returns a contest's index position from it's name
      * @param name: the name (location) of the contest
      * @return Returns the contest position in the list or null if there is no contest with the specified name
@@ -90,6 +117,25 @@ public class ContestList {
         return null;
     }
 
+    /** Loads the scores of every contest that still has scores waiting on disk
+     */
+    public void ensureAllScoresLoaded() {
+        for (Contest contest : contestList) {
+            contest.ensureScoresLoaded();
+        }
+    }
+
+    /** Merges the statistics of every contest into tour-wide figures
+     * @return Returns new statistics covering all the contests in the list
+     */
+    public ContestStatistics getTourStatistics() {
+        ContestStatistics tour = new ContestStatistics();
+        for (Contest contest : contestList) {
+            tour.merge(contest.getStatistics());
+        }
+        return tour;
+    }
+
     @Override
     public String toString() {
         return contestList.toString();
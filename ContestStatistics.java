@@ -0,0 +1,125 @@
+import java.util.Arrays;
+
+/** Running statistics for every score entered at a contest, split by run and trick scores.
+ * The statistics of several contests can be merged to get tour-wide figures. Only the contest itself updates them,
+ * everyone else it hands them to can only query them.
+ * @author SLS2024 contributors
+ * @version 19/10/2026
+ */
+public class ContestStatistics {
+    private static final int NUM_RUNS = 2; // the first 2 of the 7 scores are runs, the other 5 are tricks
+
+    /** The groups of scores statistics are kept for
+     */
+    public enum Slot {
+        ALL,
+        RUNS,
+        TRICKS
+    }
+
+    private final ScoreStats all;
+    private final ScoreStats runs;
+    private final ScoreStats tricks;
+    private int[] totals; // every skater's contest total in centi-points, kept sorted for finding positions
+    private int totalCount;
+
+    /** Constructor initialises empty statistics
+     */
+    public ContestStatistics() {
+        all = new ScoreStats();
+        runs = new ScoreStats();
+        tricks = new ScoreStats();
+        totals = new int[8];
+    }
+
+    /** Updates the statistics when a skater's scores are added, overwritten or removed
+     * @param previous: the skater's scores that are being replaced in centi-points, or null if there were none
+     * @param scores: the skater's new scores in centi-points, or null if their scores are being removed
+     */
+    synchronized void replace(short[] previous, short[] scores) {
+        if (previous != null) {
+            for (int i = 0; i < previous.length; i++) {
+                all.remove(previous[i]);
+                slotStats(i).remove(previous[i]);
+            }
+            removeTotal(CentiScore.sum(previous));
+        }
+        if (scores == null) {
+            return;
+        }
+        for (int i = 0; i < scores.length; i++) {
+            all.add(scores[i]);
+            slotStats(i).add(scores[i]);
+        }
+        addTotal(CentiScore.sum(scores));
+    }
+
+    /** Works out where a total would finish at this contest
+     * @param totalCenti: the total in centi-points
+     * @return Returns the finishing position (1 is first), ties share the higher position
+     */
+    public synchronized int getPosition(int totalCenti) {
+        int higher = totalCount - upperBound(totalCenti); // totals are sorted lowest first
+        return higher + 1;
+    }
+
+    /** Gets the statistics for a group of scores
+     * @param slot: which scores (all, runs or tricks)
+     * @return Returns the running statistics for that group
+     */
+    public ScoreStats get(Slot slot) {
+        switch (slot) {
+            case RUNS:
+                return runs;
+            case TRICKS:
+                return tricks;
+            default:
+                return all;
+        }
+    }
+
+    /** Adds the score statistics of another contest into these (finishing positions are per contest so are not merged)
+     * @param other: the statistics to merge in
+     */
+    synchronized void merge(ContestStatistics other) {
+        all.merge(other.all);
+        runs.merge(other.runs);
+        tricks.merge(other.tricks);
+    }
+
+    private void addTotal(int total) {
+        if (totalCount == totals.length) {
+            totals = Arrays.copyOf(totals, totalCount * 2);
+        }
+        int i = upperBound(total);
+        System.arraycopy(totals, i, totals, i + 1, totalCount - i);
+        totals[i] = total;
+        totalCount++;
+    }
+
+    private void removeTotal(int total) {
+        int i = Arrays.binarySearch(totals, 0, totalCount, total);
+        if (i >= 0) {
+            System.arraycopy(totals, i + 1, totals, i, totalCount - i - 1);
+            totalCount--;
+        }
+    }
+
+    private int upperBound(int total) { // index of the first total greater than the one given
+        int low = 0;
+        int high = totalCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (totals[mid] <= total) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private ScoreStats slotStats(int index) {
+        return index < NUM_RUNS ? runs : tricks;
+    }
+}
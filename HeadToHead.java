@@ -0,0 +1,300 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/** Who beat whom, how often and by how much, for every pair of skaters across every contest on a tour.
+ * Each skater's contest totals are read once into a primitive table, then the win, meeting and margin matrices are
+ * built in blocks of rows in parallel, each block sweeping every contest a tile of opponents at a time.
+ * When listening to the tour's change feed, new scores only update the row and column of the skater they are for.
+ * @author SLS2024 contributors
+ * @version 19/10/2026
+ */
+public class HeadToHead {
+    private static final int BLOCK = 64; // rows and columns per tile, so a tile of totals stays in cache
+
+    private final ContestList contestList;
+    private final SkaterList skaterList;
+    private Skater[] skaters;
+    private HashMap<Skater, Integer> skaterIndexes;
+    private HashMap<Contest, Integer> contestIndexes;
+    private int[][] totals; // each contest's totals for each skater in centi-points, -1 if they have no scores
+    private int[] wins; // wins[i * n + j] is how many times skater i finished above skater j
+    private int[] meetings; // meetings[i * n + j] is how many contests both skaters have scores at
+    private long[] margins; // margins[i * n + j] is the sum of skater i's total minus skater j's in centi-points
+    private int[] rowWins; // each skater's wins over every opponent
+    private int[] rowMeetings; // each skater's meetings with every opponent
+    private volatile boolean stale; // skaters or contests have changed, so everything is rebuilt on the next query
+
+    /** Constructor initialises the matrix for a tour, it is built on the first query
+     * @param contestListIn: the tour's contests
+     * @param skaterListIn: the tour's skaters
+     */
+    public HeadToHead(ContestList contestListIn, SkaterList skaterListIn) {
+        contestList = contestListIn;
+        skaterList = skaterListIn;
+        stale = true;
+    }
+
+    /** Keeps the matrix up to date with the tour: new scores update the affected row and column, and added or
+     * removed skaters and contests rebuild the matrix on the next query
+     * @param feed: the tour's change feed
+     */
+    public void listenTo(ChangeFeed feed) {
+        feed.addListener(this::apply);
+    }
+
+    /** Rebuilds every matrix from the tour's current scores
+     */
+    public void rebuild() {
+        stale = true; // score events published while loading are ignored, they are read below
+        contestList.ensureAllScoresLoaded(); // before taking the lock, as loading holds the contest's lock while it publishes to us
+        synchronized (this) {
+            skaters = new Skater[skaterList.getTotal()];
+            skaterIndexes = new HashMap<>();
+            for (int i = 0; i < skaters.length; i++) {
+                skaters[i] = skaterList.getSkater(i + 1);
+                skaterIndexes.put(skaters[i], i);
+            }
+            contestIndexes = new HashMap<>();
+            totals = new int[contestList.getTotal()][];
+            for (int c = 0; c < totals.length; c++) {
+                Contest contest = contestList.getContest(c + 1);
+                contestIndexes.put(contest, c);
+                totals[c] = new int[skaters.length];
+                for (int i = 0; i < skaters.length; i++) {
+                    short[] centi = skaters[i].getCentiScores(contest);
+                    totals[c][i] = centi == null ? -1 : CentiScore.sum(centi);
+                }
+            }
+
+            int n = skaters.length;
+            wins = new int[n * n];
+            meetings = new int[n * n];
+            margins = new long[n * n];
+            rowWins = new int[n];
+            rowMeetings = new int[n];
+            // each block of rows only writes its own rows, so the blocks can run in parallel without locking
+            IntStream.range(0, (n + BLOCK - 1) / BLOCK).parallel().forEach(this::buildRows);
+            stale = false;
+        }
+    }
+
+    private void buildRows(int block) {
+        int n = skaters.length;
+        int rowStart = block * BLOCK;
+        int rowEnd = Math.min(rowStart + BLOCK, n);
+        for (int colStart = 0; colStart < n; colStart += BLOCK) {
+            int colEnd = Math.min(colStart + BLOCK, n);
+            for (int[] contestTotals : totals) {
+                for (int i = rowStart; i < rowEnd; i++) {
+                    int mine = contestTotals[i];
+                    if (mine < 0) {
+                        continue;
+                    }
+                    int row = i * n;
+                    int won = 0;
+                    int met = 0;
+                    for (int j = colStart; j < colEnd; j++) {
+                        int theirs = contestTotals[j];
+                        if (theirs < 0 || j == i) {
+                            continue;
+                        }
+                        meetings[row + j]++;
+                        margins[row + j] += mine - theirs;
+                        if (mine > theirs) {
+                            wins[row + j]++;
+                            won++;
+                        }
+                        met++;
+                    }
+                    rowWins[i] += won;
+                    rowMeetings[i] += met;
+                }
+            }
+        }
+    }
+
+    private synchronized void apply(List<ChangeEvent> events) { // the whole batch under one lock, so queries never see part of it
+        for (ChangeEvent event : events) {
+            apply(event);
+        }
+    }
+
+    private void apply(ChangeEvent event) {
+        if (stale) {
+            return; // everything is rebuilt on the next query anyway
+        }
+        if (event.getType() != ChangeEvent.Type.SCORES_UPDATED) {
+            stale = true;
+            return;
+        }
+        Integer i = skaterIndexes.get(event.getSkater());
+        Integer c = contestIndexes.get(event.getContest());
+        if (i == null || c == null) {
+            stale = true;
+            return;
+        }
+
+        int[] contestTotals = totals[c];
+        int previous = contestTotals[i];
+        short[] centi = event.getSkater().getLoadedCentiScores(event.getContest()); // the latest, in case this event was held back
+        int total = centi == null ? -1 : CentiScore.sum(centi);
+        for (int j = 0; j < contestTotals.length; j++) { // only skater i's row and column change
+            if (j == i || contestTotals[j] < 0) {
+                continue;
+            }
+            if (previous >= 0) {
+                meet(i, j, previous, contestTotals[j], -1);
+            }
+            if (total >= 0) {
+                meet(i, j, total, contestTotals[j], 1);
+            }
+        }
+        contestTotals[i] = total;
+    }
+
+    private void meet(int i, int j, int mine, int theirs, int count) { // add (count 1) or take away (count -1) one meeting
+        int n = skaters.length;
+        meetings[i * n + j] += count;
+        meetings[j * n + i] += count;
+        margins[i * n + j] += (long) count * (mine - theirs);
+        margins[j * n + i] -= (long) count * (mine - theirs);
+        rowMeetings[i] += count;
+        rowMeetings[j] += count;
+        if (mine > theirs) {
+            wins[i * n + j] += count;
+            rowWins[i] += count;
+        } else if (theirs > mine) {
+            wins[j * n + i] += count;
+            rowWins[j] += count;
+        }
+    }
+
+    /** Gets how many times one skater finished above another
+     * @param skater: the skater
+     * @param opponent: the opponent
+     * @return Returns the number of contests the skater beat the opponent at
+     */
+    public int getWins(Skater skater, Skater opponent) {
+        refresh();
+        synchronized (this) {
+            int[] pair = pair(skater, opponent);
+            return wins[pair[0] * skaters.length + pair[1]];
+        }
+    }
+
+    /** Gets how many times one skater finished below another
+     * @param skater: the skater
+     * @param opponent: the opponent
+     * @return Returns the number of contests the opponent beat the skater at
+     */
+    public int getLosses(Skater skater, Skater opponent) {
+        refresh();
+        synchronized (this) {
+            int[] pair = pair(skater, opponent);
+            return wins[pair[1] * skaters.length + pair[0]];
+        }
+    }
+
+    /** Gets how many contests two skaters both have scores at
+     * @param skater: the skater
+     * @param opponent: the opponent
+     * @return Returns the number of meetings, including ties
+     */
+    public int getMeetings(Skater skater, Skater opponent) {
+        refresh();
+        synchronized (this) {
+            int[] pair = pair(skater, opponent);
+            return meetings[pair[0] * skaters.length + pair[1]];
+        }
+    }
+
+    /** Gets by how much one skater has beaten another on average
+     * @param skater: the skater
+     * @param opponent: the opponent
+     * @return Returns the skater's total minus the opponent's in points averaged over their meetings, or 0 if they have not met
+     */
+    public double getAverageMargin(Skater skater, Skater opponent) {
+        refresh();
+        synchronized (this) {
+            int[] pair = pair(skater, opponent);
+            int index = pair[0] * skaters.length + pair[1];
+            return meetings[index] == 0 ? 0 : margins[index] / (double) meetings[index] / CentiScore.SCALE;
+        }
+    }
+
+    /** Gets the share of a skater's meetings with every opponent that they won
+     * @param skater: the skater
+     * @return Returns the win percentage (0 to 100), or 0 if they have not met anyone
+     */
+    public double getWinPercentage(Skater skater) {
+        refresh();
+        synchronized (this) {
+            int i = index(skater);
+            return rowMeetings[i] == 0 ? 0 : 100.0 * rowWins[i] / rowMeetings[i];
+        }
+    }
+
+    /** Ranks the skaters by the share of their head-to-head meetings that they won
+     * @return Returns the skaters, best first (ties are broken by wins, then by name)
+     */
+    public List<Skater> getRanking() {
+        refresh();
+        synchronized (this) {
+            int n = skaters.length;
+            Integer[] order = new Integer[n];
+            double[] percentages = new double[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+                percentages[i] = rowMeetings[i] == 0 ? 0 : (double) rowWins[i] / rowMeetings[i];
+            }
+            Arrays.sort(order, (a, b) -> {
+                int compare = Double.compare(percentages[b], percentages[a]);
+                if (compare == 0) {
+                    compare = Integer.compare(rowWins[b], rowWins[a]);
+                }
+                return compare != 0 ? compare : skaters[a].getName().compareToIgnoreCase(skaters[b].getName());
+            });
+            List<Skater> ranking = new ArrayList<>(n);
+            for (int i : order) {
+                ranking.add(skaters[i]);
+            }
+            return ranking;
+        }
+    }
+
+    private void refresh() { // never called holding the lock, see rebuild
+        if (stale) {
+            rebuild();
+        }
+    }
+
+    private int index(Skater skater) {
+        Integer i = skaterIndexes.get(skater);
+        if (i == null) {
+            throw new IllegalArgumentException(skater.getName() + " is not on this tour.");
+        }
+        return i;
+    }
+
+    private int[] pair(Skater skater, Skater opponent) {
+        int i = index(skater);
+        int j = index(opponent);
+        if (i == j) {
+            throw new IllegalArgumentException("A skater cannot be compared with themselves.");
+        }
+        return new int[]{i, j};
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Skater skater : getRanking()) {
+            sb.append(sb.length() == 0 ? "" : System.lineSeparator())
+                    .append(skater.getName()).append(": ").append(String.format("%.1f", getWinPercentage(skater))).append("% won");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,167 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/** Class used to report what a results import did, or why it was not applied
+ * @author SLS2024 contributors
+ * @version 19/10/2026
+ */
+public class ImportReport {
+    private final TreeSet<String> unknownSkaters;
+    private final TreeSet<String> unknownContests;
+    private final List<String> errors;
+    private int rowsRead;
+    private int inserted;
+    private int updated;
+    private int unchanged;
+    private int skatersCreated;
+    private int contestsCreated;
+    private boolean applied;
+
+    /** Constructor initialises an empty report
+     */
+    public ImportReport() {
+        unknownSkaters = new TreeSet<>();
+        unknownContests = new TreeSet<>();
+        errors = new ArrayList<>();
+    }
+
+    void rowRead() {
+        rowsRead++;
+    }
+
+    void inserted() {
+        inserted++;
+    }
+
+    void updated() {
+        updated++;
+    }
+
+    void unchanged() {
+        unchanged++;
+    }
+
+    void skaterCreated() {
+        skatersCreated++;
+    }
+
+    void contestCreated() {
+        contestsCreated++;
+    }
+
+    void unknownSkater(String name) {
+        unknownSkaters.add(name);
+    }
+
+    void unknownContest(String location) {
+        unknownContests.add(location);
+    }
+
+    void error(String message) {
+        errors.add(message);
+    }
+
+    void setApplied(boolean appliedIn) {
+        applied = appliedIn;
+    }
+
+    /** Checks if anything stops the import from being applied
+     * @return Returns true if there were errors or unknown skaters or contests
+     */
+    public boolean hasProblems() {
+        return !errors.isEmpty() || !unknownSkaters.isEmpty() || !unknownContests.isEmpty();
+    }
+
+    /** Reads whether the import was applied (all rows) or not (no rows)
+     * @return Returns true if the import was applied
+     */
+    public boolean isApplied() {
+        return applied;
+    }
+
+    /** Reads the number of score rows in the file
+     * @return Returns the number of rows read
+     */
+    public int getRowsRead() {
+        return rowsRead;
+    }
+
+    /** Reads the number of rows that added scores where there were none
+     * @return Returns the number of inserted rows
+     */
+    public int getInserted() {
+        return inserted;
+    }
+
+    /** Reads the number of rows that replaced different scores
+     * @return Returns the number of updated rows
+     */
+    public int getUpdated() {
+        return updated;
+    }
+
+    /** Reads the number of rows that matched the scores already held
+     * @return Returns the number of unchanged rows
+     */
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    /** Reads the number of skaters created from the file
+     * @return Returns the number of skaters created
+     */
+    public int getSkatersCreated() {
+        return skatersCreated;
+    }
+
+    /** Reads the number of contests created from the file
+     * @return Returns the number of contests created
+     */
+    public int getContestsCreated() {
+        return contestsCreated;
+    }
+
+    /** Reads the names of skaters in the file that are not on the roster
+     * @return Returns a sorted copy of the names
+     */
+    public List<String> getUnknownSkaters() {
+        return new ArrayList<>(unknownSkaters);
+    }
+
+    /** Reads the locations of contests in the file that are not on the calendar
+     * @return Returns a sorted copy of the locations
+     */
+    public List<String> getUnknownContests() {
+        return new ArrayList<>(unknownContests);
+    }
+
+    /** Reads the errors found in the file
+     * @return Returns a copy of the error messages
+     */
+    public List<String> getErrors() {
+        return new ArrayList<>(errors);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(applied ? "Import applied: " : "Import NOT applied, no changes made: ")
+                .append(rowsRead).append(" rows, ")
+                .append(inserted).append(" inserted, ")
+                .append(updated).append(" updated, ")
+                .append(unchanged).append(" unchanged, ")
+                .append(skatersCreated).append(" skaters created, ")
+                .append(contestsCreated).append(" contests created");
+        if (!unknownSkaters.isEmpty()) {
+            sb.append(System.lineSeparator()).append("Unknown skaters: ").append(unknownSkaters);
+        }
+        if (!unknownContests.isEmpty()) {
+            sb.append(System.lineSeparator()).append("Unknown contests: ").append(unknownContests);
+        }
+        for (String error : errors) {
+            sb.append(System.lineSeparator()).append(error);
+        }
+        return sb.toString();
+    }
+}
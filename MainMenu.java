@@ -8,39 +8,47 @@ import java.util.*;
 
 public class MainMenu {
 
-    private static final String SLSFILE = "SLS2024.txt";
+    private static final int SEARCH_LIMIT = 10; // most athletes shown by a name search
+    private static final String SLSTOUR = "SLS2024"; // the tour opened at start up, saved to SLS2024.txt (or SLS2024.bin with --binary)
 
     public static void main(String[] args) {
         Scanner sc = new Scanner(System.in); // scanner for gathering user input
         int choice; // storing user input as choice
 
-        ContestList contestList = new ContestList(); // creating empty lists for each data type that we can add to
-        SkaterList skaterList = new SkaterList(); // within our application
-        SkaterScore skaterScore = new SkaterScore();
+        Tour.StorageMode mode = Tour.StorageMode.TEXT; // how every tour's file is read and written
+        if (Arrays.asList(args).contains("--binary")) { // compact centi-point file instead of the text file
+            mode = Tour.StorageMode.BINARY;
+        } else if (Arrays.asList(args).contains("--lazy")) { // only read contests and skaters now, scores are read per contest when first viewed
+            mode = Tour.StorageMode.LAZY_TEXT;
+        }
 
-        loadDataFromFile(contestList, skaterList, skaterScore); // loading data from the file if it exists, if not then it will create a new file
+        TourRegistry tours = new TourRegistry(); // every tour in this process shares one set of athletes
+        Tour tour = tours.openTour(SLSTOUR, Tour.defaultFileName(SLSTOUR, mode), mode); // loading data from the file if it exists, if not then it will create a new file
+        ContestList contestList = tour.getContestList(); // the lists of the tour we are currently working on
+        SkaterList skaterList = tour.getSkaterList();
+        SkaterScore skaterScore = new SkaterScore();
 
 
-        do { // do while loop to print the menu and gather choice whilst choice is not 12 (exit)
-            printMenu(); // print the menu
+        do { // do while loop to print the menu and gather choice whilst choice is not 16 (exit)
+            printMenu(tour); // print the menu
             try { // try catch for input mismatch, if the user inputs a character that is not an integer it will catch it and throw an error
-                System.out.print("Please enter a number between 1-12: "); // prompting the user for a choice between 1-12
+                System.out.print("Please enter a number between 1-16: "); // prompting the user for a choice between 1-16
                 choice = sc.nextInt(); // store the choice
 
                 switch (choice) { // switch case based on the user choice
                     default:
-                        System.out.println("Please insert a number between 1-12...");
+                        System.out.println("Please insert a number between 1-16...");
                     case 1:
                         addContest(contestList);
                         break;
                     case 2:
-                        addAthlete(skaterList);
+                        addAthlete(skaterList, tours.getAthletes());
                         break;
                     case 3:
                         addScores(contestList, skaterList);
                         break;
                     case 4:
-                        viewContestStandings(contestList, skaterList, skaterScore);
+                        viewContestStandings(tour, skaterScore);
                         break;
                     case 5:
                         viewOneContestStandings(contestList, skaterList, skaterScore);
@@ -55,7 +63,7 @@ public class MainMenu {
                         viewAllAthleteInfo(skaterList);
                         break;
                     case 9:
-                        viewOneAthleteInfo(skaterList);
+                        viewOneAthleteInfo(tour);
                         break;
                     case 10:
                         deleteOneContest(contestList);
@@ -64,6 +72,20 @@ public class MainMenu {
                         deleteOneSkater(skaterList);
                         break;
                     case 12:
+                        tour = switchTour(tours, mode); // the lists now belong to the chosen tour
+                        contestList = tour.getContestList();
+                        skaterList = tour.getSkaterList();
+                        break;
+                    case 13:
+                        searchAthletes(skaterList);
+                        break;
+                    case 14:
+                        importResults(tour);
+                        break;
+                    case 15:
+                        archiveScoreHistory(tour);
+                        break;
+                    case 16:
                         System.out.println("Application closing...");
                 }
 
@@ -74,18 +96,19 @@ public class MainMenu {
                 choice = -1; // Set choice to an invalid number, so we can continue the loop
 
             }
-        } while (choice != 12); // if choice is 12 exit
+        } while (choice != 16); // if choice is 16 exit
 
-        saveDataToFile(contestList, skaterList, skaterScore); // save any data to the file
+        tours.closeAll(); // save every tour to its own file and let any subscribers know there will be no more changes
     }
 
 
 //    MENU PRINTING
-    static void printMenu() {
+    static void printMenu(Tour tour) {
         System.out.println();
         System.out.println("************************************");
         System.out.println("* Street League Skateboarding 2024 *");
         System.out.println("************************************");
+        System.out.println("Current tour: " + tour);
         System.out.println();
         System.out.println("1: Add SLS contest location and date.");
         System.out.println("2: Add SLS competing skateboard athlete details.");
@@ -98,112 +121,15 @@ public class MainMenu {
         System.out.println("9: View data for a specific athlete.");
         System.out.println("10: Remove an SLS contest stop.");
         System.out.println("11: Remove an athlete from the list.");
-        System.out.println("12: Exit application and save changes.");
+        System.out.println("12: Switch to another tour.");
+        System.out.println("13: Search for an athlete by name.");
+        System.out.println("14: Import a results file.");
+        System.out.println("15: Archive old score corrections.");
+        System.out.println("16: Exit application and save changes.");
         System.out.println();
 
     }
 
-//      LOAD FILE DATA
-    static void loadDataFromFile(ContestList contestList, SkaterList skaterList, SkaterScore skaterScore) {
-        File file = new File(SLSFILE); // This will always be the name of the file
-        try {
-            if (!file.exists()) { // if the file does not exist, create a new file
-                file.createNewFile();
-                System.out.println("File created: " + SLSFILE);
-            }
-            Scanner scanner = new Scanner(file); // We use the scanner to look through the text in the file
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine(); // each line of the file
-                String[] parts = line.split(":"); // splitting the data by the colon into two parts
-                String type = parts[0].trim(); // this will be the switch case
-                String data = parts[1].trim(); // this will be the data we use in the application
-
-                switch (type) {
-                    case "Destination":
-                        String[] contestData = data.split(","); // splitting the data on the comma into two parts
-                        String location = contestData[0].trim(); // first part will be the location
-                        String date = contestData[1].trim(); // second part will be the date
-                        contestList.addContest(new Contest(location, date)); // create a new contest with this information
-                        break;
-                    case "Skater":
-                        String[] skaterData = data.split(","); // splitting the data on the comma into 4 parts
-                        String name = skaterData[0].trim(); // first part is the name of the skater
-                        String stance = skaterData[1].trim(); // this will be the stance
-                        String nationality = skaterData[2].trim(); // this will be the nationality
-                        String gender = skaterData[3].trim(); // this will be the gender
-//                        SINCE WE CHECK THE DATA IS CORRECTLY FORMATTED INSIDE THE APPLICATION, NO CHECKS ARE REQUIRED HERE
-                        skaterList.addSkater(new Skater(name, stance, nationality, gender)); // create a new skater with this information
-                        break;
-                    case "Scores":
-                        String[] scoresData = data.split(",", 3); // Limit the split to 3 parts as the array also uses comma
-                        if (scoresData.length < 3) { // if we have less than three parts of data throw an error
-                            System.out.println("Invalid Scores data: " + data);
-                            break; // this was mainly used for debugging
-                        }
-                        String skaterName = scoresData[0].trim(); // the name is the first part of the data
-                        String contestLocation = scoresData[1].trim(); // the contest location is the second
-                        String scores = scoresData[2].trim(); // and the scores are the third, but they are a String here
-
-                        // Convert the scores string to an array of Double[]
-                        String[] scoresStringArray = scores.substring(1, scores.length()-1).split(", "); // return a string that is a substring of our string and split it at the commas
-                        Double[] scoresArray = new Double[scoresStringArray.length]; // create a new Double[] with the length of our string array
-                        for (int i = 0; i < scoresStringArray.length; i++) { // parse each part of the string into a Double and add it to our score array
-                            scoresArray[i] = Double.parseDouble(scoresStringArray[i]);
-                        }
-
-                        // Find the skater and contest
-                        Skater skater = skaterList.getSkaterByName(skaterName); // since the skater and contest information has already been read
-                        Contest contest = contestList.getContestByName(contestLocation); // we need to get this information by its name using a simple getXByName mehtod
-
-                        // Add the scores to the skater
-                        if (skater != null && contest != null) { // checking to see if the skater and contest exists
-                            System.out.println("Adding scores to skater: " + skater.getName() + " for contest: " + contest.getLocation()); // Print the skater's name and contest location
-                            skater.addScores(contest, scoresArray); // add the scores to the skater for that contest
-                        } else { // if they are not found then print an error
-                            System.out.println("Skater or contest not found: " + skaterName + ", " + contestLocation);
-                        }
-                        break;
-                    default:
-                        System.out.println("Unknown data type in file: " + type); // this should never occur due to the checks we have inplace in our application, but this is here just in case
-                }
-            }
-        } catch (IOException e) { // If for some reason we cannot load the file
-            System.out.println("An error occurred while loading data from file: " + e.getMessage());
-        }
-    }
-
-
-    //      SAVE FILE DATA
-    static void saveDataToFile(ContestList contestList, SkaterList skaterList, SkaterScore skaterScore) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(SLSFILE))) { // try and catch for the writing to the file
-            // save contest details to the file
-            for (int i = 1; i <= contestList.getTotal(); i++) { // looping for the length of the contest list
-                writer.println("Destination: " + contestList.getContest(i).getLocation() + ", " // "Destination: " will be used to sort the data in the file loading method
-                        + contestList.getContest(i).getDate()); // writing every entry to the file using the PrintWriter
-            }
-            // save skater details to the file
-            for (int i = 1; i <= skaterList.getTotal(); i++) { // looping for the length of the skater list
-                writer.println("Skater: " + skaterList.getSkater(i).getName() + ", " + skaterList.getSkater(i).getStance() + ", " // "Skater: " will be used to sort the data in the file loading method
-                        + skaterList.getSkater(i).getNationality() + ", " + skaterList.getSkater(i).getGender()); // again using the PrintWriter to write the data to our file
-            }
-            // save scores to the file
-            for (int i = 1; i <= contestList.getTotal(); i++) { // looping for the length of contest list (even if there are no scores we will still save the skater to the contest)
-                Contest contest = contestList.getContest(i); // get the details of the contest at position i in the loop
-                for (int j = 1; j <= skaterList.getTotal(); j++) { // looping for the length of the skater list
-                    Skater skater = skaterList.getSkater(j); // get the skater's information
-                    Double[] scores = skater.getScores(contest); // storing the skaters scores for the current iteration of contest into "scores"
-                    if (scores != null && scores.length > 0) { // if the skater has scores then...
-                        String scoresString = Arrays.toString(scores); // convert the scores array into a String
-                        writer.println("Scores: " + skater.getName() + ", " + contest.getLocation() + ", " + scoresString);
-                        // "Scores: ", skater.getName(), and contest.getLocation() will be used to sort the data when we load the file
-                    }
-                }
-            }
-        } catch (IOException e) { // if we cannot save to the file
-            System.out.println("Error saving data to file.");
-        }
-    }
-
 //      OPTION 1
     static void addContest(ContestList listIn) { // method for adding a contest using the users input
         Scanner sc = new Scanner(System.in); // scanner to gather input
@@ -235,7 +161,7 @@ public class MainMenu {
     }
 
 //      OPTION 2
-    static void addAthlete(SkaterList listIn) {
+    static void addAthlete(SkaterList listIn, AthleteDictionary athletes) {
         Scanner sc = new Scanner(System.in); // scanner for receiving user input
 
         String nameIn;
@@ -283,7 +209,7 @@ public class MainMenu {
 
             } while (!genderIn.equalsIgnoreCase("male") && !genderIn.equalsIgnoreCase("female"));
 
-            listIn.addSkater(new Skater(nameIn, stanceIn, nationIn.toUpperCase(), genderIn)); // adding the skater to the list and capitalising their nationality
+            listIn.addSkater(athletes.getOrCreate(nameIn, stanceIn, nationIn.toUpperCase(), genderIn)); // adding the skater to the list and capitalising their nationality, the same skater is shared if they are on another tour
             System.out.println("Skater's information added successfully!");
             System.out.println();
         } else { // if list is full then...
@@ -352,22 +278,25 @@ public class MainMenu {
     }
 
 //      OPTION 4
-    static void viewContestStandings(ContestList contestList, SkaterList skaterList, SkaterScore skaterScore) {
+    static void viewContestStandings(Tour tour, SkaterScore skaterScore) {
+        ModelSnapshot snapshot = tour.snapshot(); // one consistent version of the tour, so scores entered while we print don't mix in
+        List<Contest> contests = snapshot.getContests();
+        List<Skater> skaters = snapshot.getSkaters();
 
-        if (!contestList.isEmpty()) { // if the list is not empty
+        if (!contests.isEmpty()) { // if the list is not empty
             System.out.println("Current SLS tour standings:");
 
-            for (int i = 1; i <= contestList.getTotal(); i++) { // for loop to print the current standings for each contest
+            for (Contest contest : contests) { // for loop to print the current standings for each contest
                 System.out.println();
-                System.out.println("Contest information: " + contestList.getContest(i).getLocation().toUpperCase() + ": " + contestList.getContest(i).getDate());
+                System.out.println("Contest information: " + contest.getLocation().toUpperCase() + ": " + contest.getDate());
 
-                double highScore = 0; // creating an empty double to store the highest score
+                int highScore = 0; // creating an empty int to store the highest score in centi-points so totals compare exactly
 
                 if (!skaterScore.hasScores()) { // if the skater has scores
 
-                    for (int j = 1; j <= skaterList.getTotal(); j++) { // looping through for the total number of skaters in the list
-                        double skaterContestScore = skaterList.getSkater(j).getTotalScore(contestList.getContest(i)); // getting the total score for each skater in the list
-                        System.out.println(skaterList.getSkater(j).getName().toUpperCase() + ": " + skaterList.getSkater(j).getTotalScore((contestList.getContest(i)))); // printing their score
+                    for (Skater skater : skaters) { // looping through for the total number of skaters in the list
+                        int skaterContestScore = snapshot.getTotalCentiScore(skater, contest); // getting the exact total score for each skater in the list
+                        System.out.println(skater.getName().toUpperCase() + ": " + CentiScore.toDouble(skaterContestScore)); // printing their score
 
                         if (skaterContestScore > highScore) { // if the score is higher than the current high score, update highscore
                             highScore = skaterContestScore;
@@ -375,7 +304,7 @@ public class MainMenu {
                     }
                 }
 
-                System.out.println("The high score of this contest was: " + highScore); // printing the highest score in the contest
+                System.out.println("The high score of this contest was: " + CentiScore.toDouble(highScore)); // printing the highest score in the contest
             }
         } else { // if there are no contests in the list then
             System.out.println("No contests currently in list!");
@@ -405,6 +334,9 @@ public class MainMenu {
                 for (int i = 1; i <= skaterList.getTotal(); i++) {
                     System.out.println(skaterList.getSkater(i).getName().toUpperCase() + ": " + Arrays.toString(skaterList.getSkater(i).getScores(contestList.getContest(choice))));
                 }
+                ContestStatistics stats = contestList.getContest(choice).getStatistics(); // running figures for the whole field
+                System.out.println("Runs: " + stats.get(ContestStatistics.Slot.RUNS));
+                System.out.println("Tricks: " + stats.get(ContestStatistics.Slot.TRICKS));
             } else { // if there are no scores for this contest
                 System.out.println("No skaters currently have scores for this contest!");
             }
@@ -466,8 +398,9 @@ public class MainMenu {
     }
 
 //      OPTION 9
-    static void viewOneAthleteInfo(SkaterList skaterList) { // similar to the previous but the user can choose which skater they would like to view the info of
+    static void viewOneAthleteInfo(Tour tour) { // similar to the previous but the user can choose which skater they would like to view the info of
         Scanner sc = new Scanner(System.in);
+        SkaterList skaterList = tour.getSkaterList();
         int choice;
 
         if (!skaterList.isEmpty()) { // if the list is not empty continue
@@ -485,6 +418,7 @@ public class MainMenu {
             // printing the skater of their choice
             System.out.println("Name: " + skaterList.getSkater(choice).getName() + ", Stance: " + skaterList.getSkater(choice).getStance() +
                     ", Nationality: " + skaterList.getSkater(choice).getNationality() + ", Gender: " + skaterList.getSkater(choice).getGender());
+            System.out.println(tour.getProfile(skaterList.getSkater(choice))); // their results on this tour so far
 
         } else { // if there are no skaters in the list
             System.out.println("No skater's currently in list!");
@@ -549,4 +483,118 @@ public class MainMenu {
             System.out.println("No skaters currently in list!");
         }
     }
+
+//      OPTION 12
+    static Tour switchTour(TourRegistry tours, Tour.StorageMode mode) { // switch to one of the open tours or open another one
+        Scanner sc = new Scanner(System.in);
+        List<Tour> openTours = tours.getTours();
+        int choice;
+
+        System.out.println("Which tour would you like to work on?");
+        System.out.println("1: Open another tour");
+
+        for (int i = 1; i <= openTours.size(); i++) { // printing every open tour
+            System.out.println((i + 1) + ": " + openTours.get(i - 1));
+        }
+
+        do { // gathering the users choice with some input validation
+            System.out.print("Please choose a number between 1-" + (openTours.size() + 1) + ": ");
+            choice = sc.nextInt();
+        } while (choice > (openTours.size() + 1) || choice < 1);
+
+        if (choice != 1) {
+            return openTours.get(choice - 2);
+        }
+
+        String nameIn;
+        do { // the tour name is also used for its file name so only letters and numbers are allowed
+            System.out.print("Please insert the name of the tour (e.g. SLS2024Womens): ");
+            nameIn = sc.next();
+
+            if (!nameIn.matches("^[a-zA-Z0-9]+$")) {
+                System.out.println("Tour name can only contain letters and numbers...");
+            }
+        } while (!nameIn.matches("^[a-zA-Z0-9]+$"));
+
+        Tour tour = tours.getTour(nameIn);
+        if (tour == null) { // load the tour from its own file, or start a new file for it
+            tour = tours.openTour(nameIn, Tour.defaultFileName(nameIn, mode), mode);
+        }
+        System.out.println("Now working on tour: " + tour.getName());
+        return tour;
+    }
+
+//      OPTION 13
+    static void searchAthletes(SkaterList skaterList) { // type-ahead search so the user doesn't have to scroll through every skater
+        Scanner sc = new Scanner(System.in);
+
+        if (!skaterList.isEmpty()) { // if the list is not empty continue
+            System.out.print("Please insert the start of the athlete's name: ");
+            String nameIn = sc.next();
+
+            List<Skater> matches = skaterList.findSkatersByPrefix(nameIn, SEARCH_LIMIT); // names starting with what was typed
+            if (matches.isEmpty()) { // nothing starts with that, so allow for a typo or two
+                matches = skaterList.findSkatersByFuzzyName(nameIn, 2, SEARCH_LIMIT);
+                if (!matches.isEmpty()) {
+                    System.out.println("No athletes start with '" + nameIn + "', did you mean:");
+                }
+            }
+
+            if (matches.isEmpty()) {
+                System.out.println("No athletes found matching '" + nameIn + "'");
+            }
+            for (Skater skater : matches) { // printing each match in the same format as option 8
+                System.out.println("Name: " + skater.getName() + ", Stance: " + skater.getStance() +
+                        ", Nationality: " + skater.getNationality() + ", Gender: " + skater.getGender());
+            }
+        } else { // if there are no skaters in the list
+            System.out.println("No athletes currently in list!");
+        }
+    }
+
+//      OPTION 14
+    static void importResults(Tour tour) { // merge a vendor's results file into the current tour, all rows or none
+        Scanner sc = new Scanner(System.in);
+
+        System.out.print("Please insert the name of the results file: ");
+        String fileIn = sc.next();
+        File file = new File(fileIn);
+
+        if (file.exists()) { // if the file is there continue
+            String createIn;
+            do { // only y or n are accepted
+                System.out.print("Create skaters and contests defined in the file that are missing? (y/n): ");
+                createIn = sc.next();
+            } while (!createIn.equalsIgnoreCase("y") && !createIn.equalsIgnoreCase("n"));
+
+            try {
+                ResultsImporter importer = new ResultsImporter(tour);
+                System.out.println(importer.importFile(file, createIn.equalsIgnoreCase("y"))); // print what was changed or why nothing was
+            } catch (IOException e) { // if the file cannot be read
+                System.out.println("An error occurred while reading the results file: " + e.getMessage());
+            }
+        } else { // if there is no file with that name
+            System.out.println("File not found: " + fileIn);
+        }
+    }
+
+//      OPTION 15
+    static void archiveScoreHistory(Tour tour) { // move old score revisions out of memory, they can still be looked up from the archive file
+        Scanner sc = new Scanner(System.in);
+        int days;
+
+        do { // only whole numbers of days from 0 up are accepted
+            System.out.print("Archive score revisions older than how many days? ");
+            days = sc.nextInt();
+            if (days < 0) {
+                System.out.println("Invalid input. The number of days cannot be negative...");
+            }
+        } while (days < 0);
+
+        long cutoff = System.currentTimeMillis() - days * 24L * 60 * 60 * 1000;
+        int archived = tour.archiveScoreHistory(cutoff);
+        if (archived >= 0) { // the error has already been printed otherwise
+            System.out.println(archived + " score revisions archived to " + tour.getArchiveFileName());
+        }
+    }
 }
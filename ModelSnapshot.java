@@ -0,0 +1,229 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** One immutable version of a tour's contests, skaters and scores. Once published a snapshot never changes,
+ * so reports can read it without locks while score entry carries on. Each new version shares everything
+ * that did not change with the version before it.
+ * The Contest and Skater objects are only used for their names and details, scores must be read from the snapshot.
+ * @author SLS2024 contributors
+ * @version 19/10/2026
+ */
+public final class ModelSnapshot {
+    private static final int BUCKETS = 64; // scores are split by skater so a write only copies one bucket
+
+    private final long version;
+    private final List<Contest> contests;
+    private final List<Skater> skaters;
+    private final Map<Skater, Map<Contest, short[]>>[] scores; // never modified once the snapshot is published
+
+    private ModelSnapshot(long versionIn, List<Contest> contestsIn, List<Skater> skatersIn,
+                          Map<Skater, Map<Contest, short[]>>[] scoresIn) {
+        version = versionIn;
+        contests = contestsIn;
+        skaters = skatersIn;
+        scores = scoresIn;
+    }
+
+    /** Creates the first snapshot of a tour
+     * @param contestsIn: the contests in calendar order
+     * @param skatersIn: the skaters in roster order
+     * @return Returns a snapshot with version 0 and no scores
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static ModelSnapshot empty(List<Contest> contestsIn, List<Skater> skatersIn) {
+        Map<Skater, Map<Contest, short[]>>[] buckets = new Map[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = Collections.emptyMap();
+        }
+        return new ModelSnapshot(0, List.copyOf(contestsIn), List.copyOf(skatersIn), buckets);
+    }
+
+    /** Reads the version number, which goes up by one with every change
+     * @return Returns the version of this snapshot
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /** Reads the contests as they were at this version
+     * @return Returns an unmodifiable list of contests in calendar order
+     */
+    public List<Contest> getContests() {
+        return contests;
+    }
+
+    /** Reads the skaters as they were at this version
+     * @return Returns an unmodifiable list of skaters in roster order
+     */
+    public List<Skater> getSkaters() {
+        return skaters;
+    }
+
+    /** Reads a skater's scores at a contest as they were at this version
+     * @param skater: the skater
+     * @param contest: the contest
+     * @return Returns a copy of the scores in centi-points, or null if there were none
+     */
+    public short[] getCentiScores(Skater skater, Contest contest) {
+        short[] centi = lookup(skater, contest);
+        return centi == null ? null : centi.clone();
+    }
+
+    /** Reads a skater's scores at a contest as they were at this version
+     * @param skater: the skater
+     * @param contest: the contest
+     * @return Returns the scores in points, or null if there were none
+     */
+    public Double[] getScores(Skater skater, Contest contest) {
+        short[] centi = lookup(skater, contest);
+        return centi == null ? null : CentiScore.decode(centi);
+    }
+
+    /** Reads a skater's exact total at a contest as it was at this version
+     * @param skater: the skater
+     * @param contest: the contest
+     * @return Returns the total in centi-points, or 0 if there were no scores
+     */
+    public int getTotalCentiScore(Skater skater, Contest contest) {
+        short[] centi = lookup(skater, contest);
+        return centi == null ? 0 : CentiScore.sum(centi);
+    }
+
+    /** Creates the next version with one change applied, sharing everything the change does not touch
+     * @param event: the change to apply
+     * @return Returns the new snapshot
+     */
+    ModelSnapshot apply(ChangeEvent event) {
+        switch (event.getType()) {
+            case CONTEST_ADDED: {
+                List<Contest> next = new ArrayList<>(contests);
+                next.add(event.getContest());
+                return new ModelSnapshot(version + 1, Collections.unmodifiableList(next), skaters, scores);
+            }
+            case CONTEST_REMOVED: {
+                List<Contest> next = new ArrayList<>(contests);
+                next.remove(event.getContest());
+                return new ModelSnapshot(version + 1, Collections.unmodifiableList(next), skaters,
+                        withoutContest(event.getContest()));
+            }
+            case SKATER_ADDED: {
+                List<Skater> next = new ArrayList<>(skaters);
+                next.add(event.getSkater());
+                Map<Contest, short[]> existing = new HashMap<>();
+                for (Contest contest : contests) { // the skater may already have scores here, so start them with those
+                    short[] centi = event.getSkater().getLoadedCentiScores(contest);
+                    if (centi != null) {
+                        existing.put(contest, centi);
+                    }
+                }
+                return new ModelSnapshot(version + 1, contests, Collections.unmodifiableList(next),
+                        withBucket(event.getSkater(), existing.isEmpty() ? null : Collections.unmodifiableMap(existing)));
+            }
+            case SKATER_REMOVED: {
+                List<Skater> next = new ArrayList<>(skaters);
+                next.remove(event.getSkater());
+                return new ModelSnapshot(version + 1, contests, Collections.unmodifiableList(next),
+                        withBucket(event.getSkater(), null));
+            }
+            default: { // SCORES_UPDATED
+                if (!skaters.contains(event.getSkater()) || !contests.contains(event.getContest())) {
+                    return this; // removed since the change was made
+                }
+                short[] centi = event.getSkater().getLoadedCentiScores(event.getContest()); // the latest, in case this event was held back
+                Map<Contest, short[]> current = scores[bucket(event.getSkater())].get(event.getSkater());
+                Map<Contest, short[]> skaterScores = current == null ? new HashMap<>() : new HashMap<>(current);
+                if (centi == null) {
+                    skaterScores.remove(event.getContest());
+                } else {
+                    skaterScores.put(event.getContest(), centi);
+                }
+                return new ModelSnapshot(version + 1, contests, skaters,
+                        withBucket(event.getSkater(), skaterScores.isEmpty() ? null : Collections.unmodifiableMap(skaterScores)));
+            }
+        }
+    }
+
+    /** Creates the next version with every skater's scores at a contest copied in, after they were loaded from the save file
+     * @param contest: the contest whose scores were loaded
+     * @return Returns the new snapshot
+     */
+    ModelSnapshot withLoadedScores(Contest contest) {
+        if (!contests.contains(contest)) {
+            return this;
+        }
+        Map<Skater, Map<Contest, short[]>>[] buckets = scores.clone(); // buckets with no loaded scores are shared
+        boolean[] copied = new boolean[buckets.length];
+        for (Skater skater : skaters) {
+            short[] centi = skater.getLoadedCentiScores(contest); // the contest is being loaded, so this must not wait on it
+            if (centi == null) {
+                continue;
+            }
+            int b = bucket(skater);
+            if (!copied[b]) {
+                buckets[b] = new HashMap<>(scores[b]);
+                copied[b] = true;
+            }
+            Map<Contest, short[]> current = buckets[b].get(skater);
+            Map<Contest, short[]> skaterScores = current == null ? new HashMap<>() : new HashMap<>(current);
+            skaterScores.put(contest, centi);
+            buckets[b].put(skater, Collections.unmodifiableMap(skaterScores));
+        }
+        for (int b = 0; b < buckets.length; b++) {
+            if (copied[b]) {
+                buckets[b] = Collections.unmodifiableMap(buckets[b]);
+            }
+        }
+        return new ModelSnapshot(version + 1, contests, skaters, buckets);
+    }
+
+    private Map<Skater, Map<Contest, short[]>>[] withoutContest(Contest contest) {
+        Map<Skater, Map<Contest, short[]>>[] buckets = scores.clone(); // buckets with no scores at the contest are shared
+        for (int b = 0; b < buckets.length; b++) {
+            Map<Skater, Map<Contest, short[]>> next = null;
+            for (Map.Entry<Skater, Map<Contest, short[]>> entry : scores[b].entrySet()) {
+                if (!entry.getValue().containsKey(contest)) {
+                    continue;
+                }
+                if (next == null) {
+                    next = new HashMap<>(scores[b]);
+                }
+                Map<Contest, short[]> skaterScores = new HashMap<>(entry.getValue());
+                skaterScores.remove(contest);
+                if (skaterScores.isEmpty()) {
+                    next.remove(entry.getKey());
+                } else {
+                    next.put(entry.getKey(), Collections.unmodifiableMap(skaterScores));
+                }
+            }
+            if (next != null) {
+                buckets[b] = Collections.unmodifiableMap(next);
+            }
+        }
+        return buckets;
+    }
+
+    private Map<Skater, Map<Contest, short[]>>[] withBucket(Skater skater, Map<Contest, short[]> skaterScores) {
+        int b = bucket(skater);
+        Map<Skater, Map<Contest, short[]>> next = new HashMap<>(scores[b]); // only this bucket is copied
+        if (skaterScores == null) {
+            next.remove(skater);
+        } else {
+            next.put(skater, skaterScores);
+        }
+        Map<Skater, Map<Contest, short[]>>[] buckets = scores.clone(); // the other buckets are shared
+        buckets[b] = Collections.unmodifiableMap(next);
+        return buckets;
+    }
+
+    private short[] lookup(Skater skater, Contest contest) {
+        Map<Contest, short[]> skaterScores = scores[bucket(skater)].get(skater);
+        return skaterScores == null ? null : skaterScores.get(contest);
+    }
+
+    private static int bucket(Skater skater) {
+        return (System.identityHashCode(skater) & 0x7fffffff) % BUCKETS;
+    }
+}
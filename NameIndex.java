@@ -0,0 +1,219 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/** Trie of skater names (not case sensitive) used for exact, type-ahead (prefix) and typo-tolerant searches.
+ * Fuzzy searches walk the trie once working out the edit distance row by row, and skip any branch that can
+ * no longer come within the allowed distance.
+ * @author SLS2024 contributors
+ * @version 19/10/2026
+ */
+public class NameIndex {
+    private final Node root;
+    private int total;
+
+    /** Constructor initialises an empty index
+     */
+    public NameIndex() {
+        root = new Node();
+    }
+
+    /** Adds a skater under their name
+     * @param skater: the skater to add
+     */
+    public synchronized void add(Skater skater) {
+        Node node = root;
+        for (char c : key(skater.getName()).toCharArray()) {
+            node = node.childOrCreate(c);
+        }
+        node.skaters.add(skater);
+        total++;
+    }
+
+    /** Removes a skater from the index
+     * @param skater: the skater to remove
+     * @return Returns true if the skater was in the index
+     */
+    public synchronized boolean remove(Skater skater) {
+        if (remove(root, key(skater.getName()), 0, skater)) {
+            total--;
+            return true;
+        }
+        return false;
+    }
+
+    /** Finds a skater whose name matches exactly (not case sensitive)
+     * @param name: the name to look for
+     * @return Returns the first skater added with that name, or null if there is none
+     */
+    public synchronized Skater findExact(String name) {
+        Node node = find(key(name));
+        return node == null || node.skaters.isEmpty() ? null : node.skaters.get(0);
+    }
+
+    /** Finds skaters whose names start with the given text
+     * @param prefix: the start of the name
+     * @param limit: the most skaters to return
+     * @return Returns the matching skaters in alphabetical order
+     */
+    public synchronized List<Skater> findByPrefix(String prefix, int limit) {
+        List<Skater> found = new ArrayList<>();
+        Node node = find(key(prefix));
+        if (node != null) {
+            collect(node, found, limit);
+        }
+        return found;
+    }
+
+    /** Finds skaters whose names are within a number of typos (insertions, deletions or substitutions) of the given name
+     * @param name: the name to match
+     * @param maxDistance: the most typos allowed
+     * @param limit: the most skaters to return
+     * @return Returns the matching skaters, closest first and then in alphabetical order
+     */
+    public synchronized List<Skater> findFuzzy(String name, int maxDistance, int limit) {
+        String query = key(name);
+        int[] firstRow = new int[query.length() + 1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (int i = 0; i < root.size; i++) {
+            fuzzy(root.children[i], root.keys[i], query, firstRow, maxDistance, matches);
+        }
+        matches.sort(Comparator.comparingInt((Match m) -> m.distance)
+                .thenComparing(m -> m.skater.getName(), String.CASE_INSENSITIVE_ORDER));
+
+        List<Skater> found = new ArrayList<>();
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            found.add(matches.get(i).skater);
+        }
+        return found;
+    }
+
+    /** Gets the number of skaters in the index
+     * @return Returns the number of skaters
+     */
+    public synchronized int getTotal() {
+        return total;
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase();
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        return node;
+    }
+
+    private boolean remove(Node node, String key, int depth, Skater skater) {
+        if (depth == key.length()) {
+            return node.skaters.remove(skater);
+        }
+        Node child = node.child(key.charAt(depth));
+        if (child == null || !remove(child, key, depth + 1, skater)) {
+            return false;
+        }
+        if (child.isEmpty()) { // prune branches that no longer lead to a skater
+            node.removeChild(key.charAt(depth));
+        }
+        return true;
+    }
+
+    private void collect(Node node, List<Skater> found, int limit) {
+        for (Skater skater : node.skaters) {
+            if (found.size() == limit) {
+                return;
+            }
+            found.add(skater);
+        }
+        for (int i = 0; i < node.size && found.size() < limit; i++) {
+            collect(node.children[i], found, limit);
+        }
+    }
+
+    private void fuzzy(Node node, char c, String query, int[] previousRow, int maxDistance, List<Match> matches) {
+        int[] row = new int[previousRow.length];
+        row[0] = previousRow[0] + 1;
+        int rowMin = row[0];
+        for (int i = 1; i < row.length; i++) {
+            int substitute = previousRow[i - 1] + (query.charAt(i - 1) == c ? 0 : 1);
+            row[i] = Math.min(substitute, Math.min(row[i - 1] + 1, previousRow[i] + 1));
+            rowMin = Math.min(rowMin, row[i]);
+        }
+
+        int distance = row[row.length - 1];
+        if (distance <= maxDistance) {
+            for (Skater skater : node.skaters) {
+                matches.add(new Match(skater, distance));
+            }
+        }
+        if (rowMin <= maxDistance) { // some longer name down this branch could still be close enough
+            for (int i = 0; i < node.size; i++) {
+                fuzzy(node.children[i], node.keys[i], query, row, maxDistance, matches);
+            }
+        }
+    }
+
+    /** A node of the trie, children are kept sorted by character so walks come out in alphabetical order
+     */
+    private static class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private int size;
+        private final List<Skater> skaters = new ArrayList<>(1); // skaters whose name ends at this node
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, 0, size, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(keys, 0, size, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            i = -i - 1;
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, Math.max(2, size * 2));
+                children = Arrays.copyOf(children, Math.max(2, size * 2));
+            }
+            System.arraycopy(keys, i, keys, i + 1, size - i);
+            System.arraycopy(children, i, children, i + 1, size - i);
+            keys[i] = c;
+            children[i] = new Node();
+            size++;
+            return children[i];
+        }
+
+        void removeChild(char c) {
+            int i = Arrays.binarySearch(keys, 0, size, c);
+            if (i >= 0) {
+                System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+                System.arraycopy(children, i + 1, children, i, size - i - 1);
+                size--;
+                children[size] = null;
+            }
+        }
+
+        boolean isEmpty() {
+            return size == 0 && skaters.isEmpty();
+        }
+    }
+
+    private static class Match {
+        private final Skater skater;
+        private final int distance;
+
+        Match(Skater skaterIn, int distanceIn) {
+            skater = skaterIn;
+            distance = distanceIn;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/** Merges a results file from a scoring vendor into a tour. The rows are sorted by contest and skater and joined
+ * against the sorted calendar and roster in one pass, instead of looking every row up by name.
+ * Imports are all or nothing: every row is checked before anything is changed, and if any row has an error or
+ * an unknown skater or contest, no changes are made. The tour's lock is held from checking through to applying, and
+ * the roster and calendar are checked again just before they are changed, so nothing is changed if they were edited in between. The changes are published as one batch, so the tour's snapshot and
+ * other listeners never see part of an import. When a file has more than one row for the same entry, the last one is used.
+ * Rows use the same layout as the save file ("Scores: name, location, [s1, ..., s7]", the "Scores:" and brackets
+ * are optional). The file may also hold "Skater:" and "Destination:" lines, which are used to create skaters and
+ * contests that are missing when the import is asked to.
+ * @author SLS2024 contributors
+ * @version 19/10/2026
+ */
+public class ResultsImporter {
+    private static final int NUM_SCORES = 7;
+
+    private final ContestList contestList;
+    private final SkaterList skaterList;
+    private final AthleteDictionary athletes;
+    private final ChangeFeed changeFeed;
+    private final Tour tour;
+
+    /** Constructor initialises an importer for a tour
+     * @param tour: the tour whose calendar and roster rows are matched against, and whose feed the import is published on
+     */
+    public ResultsImporter(Tour tour) {
+        contestList = tour.getContestList();
+        skaterList = tour.getSkaterList();
+        athletes = tour.getAthletes();
+        changeFeed = tour.getChangeFeed();
+        this.tour = tour;
+    }
+
+    /** Imports a results file
+     * @param file: the file to import
+     * @param createMissing: true to create skaters and contests that are defined in the file but not in the tour
+     * @return Returns a report of what was (or would have been) changed and any problems found
+     * @throws IOException if the file cannot be read
+     */
+    public ImportReport importFile(File file, boolean createMissing) throws IOException {
+        return importLines(Files.readAllLines(file.toPath(), Charset.defaultCharset()), createMissing);
+    }
+
+    /** Imports the lines of a results file
+     * @param lines: the lines to import
+     * @param createMissing: true to create skaters and contests that are defined in the lines but not in the tour
+     * @return Returns a report of what was (or would have been) changed and any problems found
+     */
+    public ImportReport importLines(List<String> lines, boolean createMissing) {
+        synchronized (tour) { // the tour's lock, also held while it loads, saves or archives, from checking right through to applying
+            return checkAndApply(lines, createMissing);
+        }
+    }
+
+    private ImportReport checkAndApply(List<String> lines, boolean createMissing) {
+        ImportReport report = new ImportReport();
+        List<Row> rows = new ArrayList<>();
+        LinkedHashMap<String, String[]> skaterDefinitions = new LinkedHashMap<>(); // lower case name mapped to its details
+        LinkedHashMap<String, Contest> contestDefinitions = new LinkedHashMap<>(); // location mapped to a new contest
+
+        // 1. parse every line, nothing is changed yet
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                if (line.startsWith("Destination:")) {
+                    Contest contest = TourStorage.parseContest(line.substring(line.indexOf(':') + 1).trim());
+                    contestDefinitions.put(contest.getLocation(), contest);
+                } else if (line.startsWith("Skater:")) {
+                    String[] details = line.substring(line.indexOf(':') + 1).split(",");
+                    for (int k = 0; k < details.length; k++) {
+                        details[k] = details[k].trim();
+                    }
+                    if (details.length < 4) {
+                        throw new IllegalArgumentException("Expected name, stance, nationality and gender: " + line);
+                    }
+                    Skater.checkDetails(details[1], details[3]);
+                    skaterDefinitions.put(details[0].toLowerCase(), details);
+                } else {
+                    rows.add(parseRow(line));
+                    report.rowRead();
+                }
+            } catch (RuntimeException e) { // bad numbers, missing fields or invalid details
+                report.error("Line " + (i + 1) + ": " + (e.getMessage() == null ? e.toString() : e.getMessage()));
+            }
+        }
+
+        // 2. sort the rows and merge-join them against the sorted calendar and roster
+        rows.sort(Comparator.comparing((Row r) -> r.contestKey).thenComparing(r -> r.skaterKey)); // stable, so later rows for the same entry still win
+        List<Row> entries = new ArrayList<>(rows.size());
+        for (int k = 0; k < rows.size(); k++) { // only the last row for each entry counts
+            if (k + 1 == rows.size() || !rows.get(k + 1).contestKey.equals(rows.get(k).contestKey)
+                    || !rows.get(k + 1).skaterKey.equals(rows.get(k).skaterKey)) {
+                entries.add(rows.get(k));
+            }
+        }
+        rows = entries;
+        List<Contest> calendar = new ArrayList<>();
+        for (int i = 1; i <= contestList.getTotal(); i++) {
+            calendar.add(contestList.getContest(i));
+        }
+        calendar.sort(Comparator.comparing(Contest::getLocation));
+        List<Skater> roster = new ArrayList<>();
+        for (int i = 1; i <= skaterList.getTotal(); i++) {
+            roster.add(skaterList.getSkater(i));
+        }
+        roster.sort(Comparator.comparing(s -> s.getName().toLowerCase()));
+
+        List<Contest> newContests = new ArrayList<>();
+        LinkedHashSet<String> newSkaters = new LinkedHashSet<>();
+        int c = 0;
+        int start = 0;
+        while (start < rows.size()) {
+            String contestKey = rows.get(start).contestKey;
+            int end = start;
+            while (end < rows.size() && rows.get(end).contestKey.equals(contestKey)) {
+                end++;
+            }
+
+            while (c < calendar.size() && calendar.get(c).getLocation().compareTo(contestKey) < 0) {
+                c++;
+            }
+            Contest contest = null;
+            if (c < calendar.size() && calendar.get(c).getLocation().equals(contestKey)) {
+                contest = calendar.get(c);
+            } else if (createMissing && contestDefinitions.containsKey(contestKey)) {
+                contest = contestDefinitions.get(contestKey);
+                newContests.add(contest);
+            } else {
+                report.unknownContest(contestKey);
+            }
+
+            int s = 0; // the rows in this group are sorted by skater, so walk the roster alongside them
+            for (int k = start; k < end; k++) {
+                Row row = rows.get(k);
+                while (s < roster.size() && roster.get(s).getName().toLowerCase().compareTo(row.skaterKey) < 0) {
+                    s++;
+                }
+                if (s < roster.size() && roster.get(s).getName().toLowerCase().equals(row.skaterKey)) {
+                    row.skater = roster.get(s);
+                } else if (createMissing && skaterDefinitions.containsKey(row.skaterKey)) {
+                    newSkaters.add(row.skaterKey);
+                } else {
+                    report.unknownSkater(row.skaterName);
+                }
+                row.contest = contest;
+            }
+            start = end;
+        }
+
+        if (contestList.getTotal() + newContests.size() > contestList.MAX) {
+            report.error("Creating " + newContests.size() + " contests would go over the limit of " + contestList.MAX);
+        }
+        if (skaterList.getTotal() + newSkaters.size() > SkaterList.MAX) {
+            report.error("Creating " + newSkaters.size() + " skaters would go over the limit of " + SkaterList.MAX);
+        }
+        if (report.hasProblems()) { // all or nothing, so a single problem means no changes
+            report.setApplied(false);
+            return report;
+        }
+
+        // 3. everything has been checked, so apply the whole file and publish it as one change
+        List<Row> checked = rows;
+        boolean[] applied = new boolean[1];
+        changeFeed.publishAsBatch(() -> applied[0] = apply(checked, newContests, newSkaters, skaterDefinitions, report));
+        report.setApplied(applied[0]);
+        return report;
+    }
+
+    private boolean apply(List<Row> rows, List<Contest> newContests, LinkedHashSet<String> newSkaters,
+            LinkedHashMap<String, String[]> skaterDefinitions, ImportReport report) {
+        // the lists can still be edited directly without the tour's lock, so check again that nothing has moved
+        for (Row row : rows) {
+            if (row.skater != null && skaterList.getSkaterByName(row.skater.getName()) != row.skater) {
+                report.error(row.skaterName + " was removed from the tour during the import.");
+            }
+            if (!newContests.contains(row.contest) && !contestList.containsContest(row.contest)) {
+                report.error(row.contestKey + " was removed from the tour during the import.");
+            }
+        }
+        if (report.hasProblems()) {
+            return false;
+        }
+
+        List<Contest> addedContests = new ArrayList<>();
+        List<Skater> addedSkaters = new ArrayList<>();
+        for (Contest contest : newContests) {
+            if (contestList.getContestByName(contest.getLocation()) != null || !contestList.addContest(contest)) {
+                report.error("Could not create contest " + contest.getLocation() + ", it was added or the calendar filled up during the import.");
+                undo(addedContests, addedSkaters);
+                return false;
+            }
+            addedContests.add(contest);
+        }
+        LinkedHashMap<String, Skater> created = new LinkedHashMap<>();
+        for (String key : newSkaters) {
+            String[] details = skaterDefinitions.get(key);
+            Skater skater = athletes.getOrCreate(details[0], details[1], details[2].toUpperCase(), details[3]);
+            if (skaterList.getSkaterByName(details[0]) != null || !skaterList.addSkater(skater)) {
+                report.error("Could not create skater " + details[0] + ", they were added or the roster filled up during the import.");
+                undo(addedContests, addedSkaters);
+                return false;
+            }
+            addedSkaters.add(skater);
+            created.put(key, skater);
+        }
+        for (int i = 0; i < addedContests.size(); i++) {
+            report.contestCreated();
+        }
+        for (int i = 0; i < addedSkaters.size(); i++) {
+            report.skaterCreated();
+        }
+
+        for (Row row : rows) {
+            Skater skater = row.skater != null ? row.skater : created.get(row.skaterKey);
+            short[] previous = skater.getCentiScores(row.contest);
+            if (Arrays.equals(previous, row.scores)) {
+                report.unchanged();
+                continue;
+            }
+            skater.addCentiScores(row.contest, row.scores);
+            if (previous == null) {
+                report.inserted();
+            } else {
+                report.updated();
+            }
+        }
+        return true;
+    }
+
+    private void undo(List<Contest> addedContests, List<Skater> addedSkaters) { // take back what was created before the import failed
+        for (Skater skater : addedSkaters) {
+            for (int i = 1; i <= skaterList.getTotal(); i++) {
+                if (skaterList.getSkater(i) == skater) {
+                    skaterList.removeSkater(i - 1);
+                    break;
+                }
+            }
+        }
+        for (Contest contest : addedContests) {
+            for (int i = 1; i <= contestList.getTotal(); i++) {
+                if (contestList.getContest(i) == contest) {
+                    contestList.removeContest(i - 1);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static Row parseRow(String line) {
+        String data = line.startsWith("Scores:") ? line.substring(line.indexOf(':') + 1).trim() : line;
+        String[] parts = data.split(",", 3);
+        if (parts.length < 3) {
+            throw new IllegalArgumentException("Expected skater, contest and " + NUM_SCORES + " scores: " + line);
+        }
+
+        String scoresText = parts[2].trim();
+        if (scoresText.startsWith("[") && scoresText.endsWith("]")) {
+            scoresText = scoresText.substring(1, scoresText.length() - 1);
+        }
+        String[] values = scoresText.split(",");
+        if (values.length != NUM_SCORES) {
+            throw new IllegalArgumentException("Exactly 7 scores (2 runs and 5 tricks) must be provided.");
+        }
+        short[] scores = new short[NUM_SCORES];
+        for (int i = 0; i < NUM_SCORES; i++) {
+            double value = Double.parseDouble(values[i].trim());
+            if (!(value >= 0.0 && value <= 100.0)) { // checked before rounding, the same as Skater.addScores
+                throw new IllegalArgumentException("Scores must be between 0.0 and 100.0.");
+            }
+            scores[i] = CentiScore.fromDouble(value);
+        }
+        return new Row(parts[0].trim(), parts[1].trim(), scores);
+    }
+
+    /** One score row from the file and, once joined, the skater and contest it belongs to
+     */
+    private static class Row {
+        private final String skaterName;
+        private final String skaterKey; // lower case, as skater names are matched ignoring case
+        private final String contestKey; // contest locations are matched exactly, like getContestByName
+        private final short[] scores;
+        private Skater skater;
+        private Contest contest;
+
+        Row(String skaterNameIn, String contestIn, short[] scoresIn) {
+            skaterName = skaterNameIn;
+            skaterKey = skaterNameIn.toLowerCase();
+            contestKey = contestIn;
+            scores = scoresIn;
+        }
+    }
+}
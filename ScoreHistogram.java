@@ -0,0 +1,157 @@
+/** Mergeable histogram of centi-point scores used to answer percentile and rank questions.
+ * As scores are whole centi-points from 0 to 10000 every value gets its own bucket, so the percentiles are exact.
+ * A second layer of one-point buckets means a query only ever looks at about 200 counts.
+ * The centi-point buckets are allocated a point at a time as scores arrive, so a contest with no scores costs
+ * next to nothing and a real field, whose scores bunch into a few dozen points, only a few kilobytes.
+ * @author SLS2024 contributors
+ * @version 19/10/2026
+ */
+public class ScoreHistogram {
+    private static final int POINT_BUCKETS = CentiScore.MAX / CentiScore.SCALE + 1; // one per point
+
+    private int[] coarse; // count in each point, null until the first score
+    private int[][] fine; // count of each centi-point within a point, each point's allocated on its first score
+    private long count;
+
+    /** Constructor initialises an empty histogram, nothing is allocated until a score is added
+     */
+    public ScoreHistogram() {
+    }
+
+    /** Adds a score
+     * @param centi: the score in centi-points
+     */
+    void add(short centi) {
+        int point = centi / CentiScore.SCALE;
+        int[] counts = pointCounts(point);
+        counts[centi % CentiScore.SCALE]++;
+        coarse[point]++;
+        count++;
+    }
+
+    /** Removes a score that was added earlier
+     * @param centi: the score in centi-points
+     */
+    void remove(short centi) {
+        int point = centi / CentiScore.SCALE;
+        if (fine == null || fine[point] == null || fine[point][centi % CentiScore.SCALE] == 0) {
+            throw new IllegalStateException("Score was never added: " + CentiScore.format(centi));
+        }
+        fine[point][centi % CentiScore.SCALE]--;
+        coarse[point]--;
+        count--;
+    }
+
+    /** Adds every score from another histogram into this one
+     * @param other: the histogram to merge in
+     */
+    void merge(ScoreHistogram other) {
+        if (other.count == 0) {
+            return;
+        }
+        for (int point = 0; point < POINT_BUCKETS; point++) {
+            if (other.fine[point] == null || other.coarse[point] == 0) {
+                continue;
+            }
+            int[] counts = pointCounts(point);
+            for (int i = 0; i < CentiScore.SCALE; i++) {
+                counts[i] += other.fine[point][i];
+            }
+            coarse[point] += other.coarse[point];
+        }
+        count += other.count;
+    }
+
+    /** Gets the number of scores held
+     * @return Returns the number of scores
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /** Finds the score at a given percentile using the nearest-rank method
+     * @param percentile: the percentile wanted (0-100)
+     * @return Returns the score in centi-points, or -1 if there are no scores
+     */
+    public int percentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+        }
+        if (count == 0) {
+            return -1;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * count)); // rank of the score we want
+        return valueAtRank(target);
+    }
+
+    /** Finds the lowest score held
+     * @return Returns the lowest score in centi-points, or -1 if there are no scores
+     */
+    public int min() {
+        return count == 0 ? -1 : valueAtRank(1);
+    }
+
+    /** Finds the highest score held
+     * @return Returns the highest score in centi-points, or -1 if there are no scores
+     */
+    public int max() {
+        return count == 0 ? -1 : valueAtRank(count);
+    }
+
+    /** Works out how a score ranks against the scores held
+     * @param centi: the score in centi-points
+     * @return Returns the percentage of scores below it (counting ties as half), or 0 if there are no scores
+     */
+    public double percentileRank(short centi) {
+        if (count == 0) {
+            return 0;
+        }
+        long below = 0;
+        int point = centi / CentiScore.SCALE;
+        for (int i = 0; i < point; i++) {
+            below += coarse[i];
+        }
+        int[] counts = fine[point];
+        if (counts == null) { // nothing scored within this point
+            return below * 100.0 / count;
+        }
+        for (int i = 0; i < centi % CentiScore.SCALE; i++) {
+            below += counts[i];
+        }
+        return (below + counts[centi % CentiScore.SCALE] / 2.0) * 100.0 / count;
+    }
+
+    /** Gets the number of scores in each one-point bucket, for drawing a histogram
+     * @return Returns a copy of the 101 bucket counts, bucket i holding scores from i.00 to i.99
+     */
+    public int[] getPointBuckets() {
+        return coarse == null ? new int[POINT_BUCKETS] : coarse.clone();
+    }
+
+    private int[] pointCounts(int point) { // the centi-point counts within a point, allocated the first time they are needed
+        if (coarse == null) {
+            coarse = new int[POINT_BUCKETS];
+            fine = new int[POINT_BUCKETS][];
+        }
+        if (fine[point] == null) {
+            fine[point] = new int[CentiScore.SCALE];
+        }
+        return fine[point];
+    }
+
+    private int valueAtRank(long rank) {
+        long seen = 0;
+        int point = 0;
+        while (seen + coarse[point] < rank) { // skip whole points first
+            seen += coarse[point];
+            point++;
+        }
+        int[] counts = fine[point]; // the rank falls in this point, so it has scores
+        int i = 0;
+        while (seen + counts[i] < rank) {
+            seen += counts[i];
+            i++;
+        }
+        return point * CentiScore.SCALE + i;
+    }
+}
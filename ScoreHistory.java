@@ -0,0 +1,353 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Append-only history of every set of scores entered for one skater at one contest, so corrections never lose the
+ * scores they replaced and standings can be reproduced as they were at any revision or time.
+ * Each revision only stores the scores that changed (a bit mask of changed slots followed by the new values),
+ * with a full copy every CHECKPOINT revisions so a lookup never replays more than a few revisions.
+ * Revisions are saved with the tour and restored with their original numbers and times when it is loaded.
+ * Only the skater's own scores and the save file can add to or prune a history, everything else can only read it.
+ * @author SLS2024 contributors
+ * @version 19/10/2026
+ */
+public class ScoreHistory {
+    private static final int CHECKPOINT = 16; // every 16th revision stores all the scores
+    private static final int FIRST_ENTRY = 8; // room for one full entry of 7 scores, as most histories never get a correction
+    private static final AtomicLong REVISIONS = new AtomicLong(); // revision numbers are shared by every history so they order all changes
+
+    // the history is also where the current scores are kept, so it starts out sized for a single entry
+    private long[] stamps; // revision number then time in milliseconds of each entry, revisions increasing and times never decreasing
+    private int[] starts; // where each entry begins in data, null while there is only a first entry (which starts at 0)
+    private short[] data; // for each entry: the mask of changed slots, then the new value of each changed slot
+    private int size;
+    private int dataSize;
+
+    /** Constructor initialises an empty history
+     */
+    public ScoreHistory() {
+        stamps = new long[2];
+        data = new short[FIRST_ENTRY];
+    }
+
+    /** Reads the newest revision number given out by any history, to reproduce standings as they are now later on
+     * @return Returns the current revision number
+     */
+    public static long getCurrentRevision() {
+        return REVISIONS.get();
+    }
+
+    /** Records a new set of scores
+     * @param scores: the scores in centi-points
+     * @param time: the time the scores were entered in milliseconds
+     * @return Returns the revision number given to these scores
+     */
+    synchronized long append(short[] scores, long time) {
+        if (size > 0 && time < timeAt(size - 1)) {
+            time = timeAt(size - 1); // keep times in order if the clock goes backwards
+        }
+        long revision = REVISIONS.incrementAndGet();
+        encode(scores, revision, time);
+        return revision;
+    }
+
+    /** Puts back a revision read from a save file with its original number and time. The revision numbers given
+     * out from now on carry on after it, so a restart never reuses one.
+     * @param revision: the revision number, which must be higher than any already in this history
+     * @param time: the time the scores were entered in milliseconds
+     * @param scores: the scores in centi-points
+     */
+    synchronized void restore(long revision, long time, short[] scores) {
+        if (size > 0 && revision <= revisionAt(size - 1)) {
+            throw new IllegalArgumentException("Revisions must be restored in order: " + revision);
+        }
+        if (size > 0 && time < timeAt(size - 1)) {
+            time = timeAt(size - 1);
+        }
+        REVISIONS.accumulateAndGet(revision, Math::max);
+        encode(scores, revision, time);
+    }
+
+    /** Writes the history to a binary save file exactly as it is held, deltas included
+     * @param out: the stream to write to
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < 2 * size; i++) { // each revision number followed by its time
+            out.writeLong(stamps[i]);
+        }
+        out.writeInt(dataSize);
+        for (int i = 0; i < dataSize; i++) {
+            out.writeShort(data[i]);
+        }
+    }
+
+    /** Reads a history written by writeTo, the revision numbers given out from now on carry on after it
+     * @param in: the stream to read from
+     * @return Returns the history
+     * @throws IOException if the file cannot be read or the history is damaged
+     */
+    public static ScoreHistory readFrom(DataInputStream in) throws IOException {
+        ScoreHistory history = new ScoreHistory();
+        int size = in.readInt();
+        history.stamps = new long[Math.max(2 * size, 2)];
+        history.starts = size > 1 ? new int[size] : null;
+        for (int i = 0; i < 2 * size; i++) {
+            history.stamps[i] = in.readLong();
+        }
+        int dataSize = in.readInt();
+        history.data = new short[Math.max(dataSize, FIRST_ENTRY)];
+        for (int i = 0; i < dataSize; i++) {
+            history.data[i] = in.readShort();
+        }
+
+        int pos = 0;
+        for (int i = 0; i < size; i++) { // each entry is its header followed by one value per changed slot
+            if (pos >= dataSize || (i == 0 && (history.data[pos] & 0x8000) == 0)) {
+                throw new IOException("Damaged score history");
+            }
+            if (history.starts != null) {
+                history.starts[i] = pos;
+            }
+            pos += 1 + Integer.bitCount(history.data[pos] & 0x7FFF);
+        }
+        if (pos != dataSize) {
+            throw new IOException("Damaged score history");
+        }
+        history.size = size;
+        history.dataSize = dataSize;
+        if (size > 0) {
+            REVISIONS.accumulateAndGet(history.revisionAt(size - 1), Math::max);
+        }
+        return history;
+    }
+
+    /** Gets the number of revisions held
+     * @return Returns the number of revisions
+     */
+    public synchronized int getTotal() {
+        return size;
+    }
+
+    /** Reads the latest revision number
+     * @return Returns the latest revision, or 0 if there are none
+     */
+    public synchronized long getLatestRevision() {
+        return size == 0 ? 0 : revisionAt(size - 1);
+    }
+
+    /** Reads the scores as they are now, which is the latest revision
+     * @return Returns a copy of the scores in centi-points, or null if there are none
+     */
+    public synchronized short[] getLatest() {
+        return decode(size - 1);
+    }
+
+    /** Reads the time of the oldest revision still held, older ones may have been archived
+     * @return Returns the time in milliseconds, or Long.MAX_VALUE if there are none
+     */
+    public synchronized long getEarliestTime() {
+        return size == 0 ? Long.MAX_VALUE : timeAt(0);
+    }
+
+    /** Reads the oldest revision number still held, older ones may have been archived
+     * @return Returns the revision number, or Long.MAX_VALUE if there are none
+     */
+    public synchronized long getEarliestRevision() {
+        return size == 0 ? Long.MAX_VALUE : revisionAt(0);
+    }
+
+    /** Reads the scores as they were at a revision
+     * @param revision: the revision number (revisions of other skaters and contests count too)
+     * @return Returns a copy of the scores in centi-points, or null if none had been entered by then
+     */
+    public synchronized short[] asOfRevision(long revision) {
+        return decode(lastAtOrBefore(0, revision));
+    }
+
+    /** Reads the scores as they were at a time
+     * @param time: the time in milliseconds
+     * @return Returns a copy of the scores in centi-points, or null if none had been entered by then
+     */
+    public synchronized short[] asOfTime(long time) {
+        return decode(lastAtOrBefore(1, time));
+    }
+
+    /** Reads every revision still held, oldest first
+     * @return Returns the revisions with their full scores
+     */
+    public synchronized List<Revision> getRevisions() {
+        List<Revision> all = new ArrayList<>(size);
+        short[] scores = null;
+        for (int i = 0; i < size; i++) {
+            scores = apply(scores, i);
+            all.add(new Revision(revisionAt(i), timeAt(i), scores.clone()));
+        }
+        return all;
+    }
+
+    /** Reads the revisions entered before a time that can be archived. The last of them is not included, as it is
+     * kept as the starting point of the history so lookups from that time on still give the same answer.
+     * Nothing is removed, call pruneThrough once the revisions have been safely written out.
+     * @param cutoff: the time in milliseconds
+     * @return Returns the revisions that can be archived with their full scores, oldest first
+     */
+    public synchronized List<Revision> getRevisionsBefore(long cutoff) {
+        int keepFrom = lastAtOrBefore(1, cutoff - 1); // the newest revision before the cutoff becomes the new start
+        List<Revision> all = getRevisions();
+        return keepFrom <= 0 ? new ArrayList<>() : new ArrayList<>(all.subList(0, keepFrom));
+    }
+
+    /** Removes the revisions up to and including a revision number, after they have been archived.
+     * The newest revision is always kept, so the current scores are never lost.
+     * @param revision: the last revision number to remove
+     * @return Returns the number of revisions removed
+     */
+    synchronized int pruneThrough(long revision) {
+        int keepFrom = Math.min(lastAtOrBefore(0, revision) + 1, size - 1);
+        if (keepFrom <= 0) {
+            return 0;
+        }
+        List<Revision> all = getRevisions();
+        size = 0;
+        dataSize = 0;
+        for (Revision r : all.subList(keepFrom, all.size())) { // re-encode what is left against its new start
+            encode(r.scores, r.revision, r.time);
+        }
+        return keepFrom;
+    }
+
+    private void encode(short[] scores, long revision, long time) {
+        short[] previous = size == 0 ? null : decode(size - 1);
+        boolean full = previous == null || size % CHECKPOINT == 0 || previous.length != scores.length;
+
+        int mask = 0;
+        for (int i = 0; i < scores.length; i++) {
+            if (full || scores[i] != previous[i]) {
+                mask |= 1 << i;
+            }
+        }
+
+        if (2 * size == stamps.length) {
+            stamps = Arrays.copyOf(stamps, stamps.length * 2);
+        }
+        if (size > 0 && (starts == null || starts.length < stamps.length / 2)) { // a second entry needs its start recorded
+            starts = starts == null ? new int[stamps.length / 2] : Arrays.copyOf(starts, stamps.length / 2);
+        }
+        if (dataSize + scores.length + 1 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, dataSize + scores.length + 1));
+        }
+
+        stamps[2 * size] = revision;
+        stamps[2 * size + 1] = time;
+        if (starts != null) {
+            starts[size] = dataSize;
+        }
+        data[dataSize++] = (short) (full ? mask | 0x8000 : mask); // top bit marks a full checkpoint
+        for (int i = 0; i < scores.length; i++) {
+            if ((mask & (1 << i)) != 0) {
+                data[dataSize++] = scores[i];
+            }
+        }
+        size++;
+    }
+
+    private short[] decode(int index) {
+        if (index < 0) {
+            return null;
+        }
+        int from = index;
+        while ((data[startAt(from)] & 0x8000) == 0) { // walk back to the nearest checkpoint
+            from--;
+        }
+        short[] scores = null;
+        for (int i = from; i <= index; i++) {
+            scores = apply(scores, i);
+        }
+        return scores;
+    }
+
+    private short[] apply(short[] scores, int index) {
+        int pos = startAt(index);
+        int header = data[pos++] & 0xFFFF;
+        int mask = header & 0x7FFF;
+        short[] next = (header & 0x8000) != 0 ? new short[Integer.bitCount(mask)] : scores.clone();
+        for (int i = 0; i < next.length; i++) {
+            if ((mask & (1 << i)) != 0) {
+                next[i] = data[pos++];
+            }
+        }
+        return next;
+    }
+
+    private long revisionAt(int index) {
+        return stamps[2 * index];
+    }
+
+    private long timeAt(int index) {
+        return stamps[2 * index + 1];
+    }
+
+    private int startAt(int index) {
+        return starts == null ? 0 : starts[index];
+    }
+
+    private int lastAtOrBefore(int field, long key) { // index of the last entry whose revision (field 0) or time (field 1) is <= key, or -1
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (stamps[2 * mid + field] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
+    /** One revision of the scores
+     */
+    public static class Revision {
+        private final long revision;
+        private final long time;
+        private final short[] scores;
+
+        Revision(long revisionIn, long timeIn, short[] scoresIn) {
+            revision = revisionIn;
+            time = timeIn;
+            scores = scoresIn;
+        }
+
+        /** Reads the revision number
+         * @return Returns the revision number
+         */
+        public long getRevision() {
+            return revision;
+        }
+
+        /** Reads the time the scores were entered
+         * @return Returns the time in milliseconds
+         */
+        public long getTime() {
+            return time;
+        }
+
+        /** Reads the scores
+         * @return Returns a copy of the scores in centi-points
+         */
+        public short[] getScores() {
+            return scores.clone();
+        }
+
+        @Override
+        public String toString() {
+            return "#" + revision + " " + Arrays.toString(CentiScore.decode(scores));
+        }
+    }
+}
@@ -0,0 +1,199 @@
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Consumer;
+
+/** Index of where each contest's "Scores:" records sit in the save file, so they can be read in the first
+ * time the contest is looked at instead of all being parsed at startup. Files with an "Index:" section give one
+ * block per contest, older files have an entry for every line.
+ * @author SLS2024 contributors
+ * @version 19/10/2026
+ */
+public class ScoreIndex {
+    private final File file;
+    private final SkaterList skaterList;
+    private ContestList contestList; // set by attach
+    private final Consumer<Contest> onScoresLoaded;
+    private final HashMap<String, Entries> entries; // contest location mapped to the positions of its score records
+
+    /** Constructor initialises an empty index for the given file
+     * @param fileIn: the save file the offsets refer to
+     * @param skaterListIn: the skaters that score records are resolved against when they are loaded
+     * @param onScoresLoaded: told about each contest once its scores have been read in, as loading is not published as a change
+     */
+    public ScoreIndex(File fileIn, SkaterList skaterListIn, Consumer<Contest> onScoresLoaded) {
+        file = fileIn;
+        skaterList = skaterListIn;
+        this.onScoresLoaded = onScoresLoaded;
+        entries = new HashMap<>();
+    }
+
+    /** Records the position of one or more score records
+     * @param contestLocation: the location of the contest the records belong to
+     * @param offset: the byte offset of the start of the first line in the file
+     * @param length: the length of the lines in bytes (a single line's does not include its line break)
+     */
+    public void addEntry(String contestLocation, long offset, int length) {
+        entries.computeIfAbsent(contestLocation, key -> new Entries()).add(offset, length);
+    }
+
+    /** Hands each contest with indexed score records the job of loading them when it is first used
+     * @param contestList: the contests read from the file
+     */
+    public void attach(ContestList contestList) {
+        this.contestList = contestList;
+        for (String location : entries.keySet()) {
+            Contest contest = contestList.getContestByName(location);
+            if (contest != null) {
+                contest.setScoreIndex(this);
+            } else {
+                System.out.println("Contest not found for indexed scores: " + location);
+            }
+        }
+    }
+
+    /** Gets the number of contests whose scores have not been loaded yet
+     * @return Returns the number of contests with scores still on disk only
+     */
+    public synchronized int getPendingTotal() {
+        return entries.size();
+    }
+
+    /** Reads every indexed score record for a contest and puts the scores in place with their saved revisions.
+     * This is not a change to the tour, so nothing is published and no new revisions are recorded.
+     * @param contest: the contest whose scores we are loading
+     */
+    synchronized void loadScores(Contest contest) {
+        Entries e = entries.remove(contest.getLocation());
+        if (e == null) {
+            return;
+        }
+
+        List<String> lines = new ArrayList<>();
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            for (int i = 0; i < e.size; i++) {
+                byte[] bytes = new byte[e.lengths[i]];
+                in.seek(e.offsets[i]);
+                in.readFully(bytes);
+                for (String line : new String(bytes, Charset.defaultCharset()).split("\\r?\\n")) {
+                    if (line.startsWith("Scores:") || line.startsWith("Revision:")) {
+                        lines.add(line);
+                    }
+                }
+            }
+            TourStorage.loadScoreLines(lines, contestList, skaterList, false); // same layout as the eager loader
+            onScoresLoaded.accept(contest);
+        } catch (IOException ex) {
+            System.out.println("An error occurred while loading scores for " + contest.getLocation() + ": " + ex.getMessage());
+        }
+    }
+
+    /** Growable arrays of offsets and lengths, kept as primitives as there can be a lot of them
+     */
+    private static class Entries {
+        private long[] offsets = new long[8];
+        private int[] lengths = new int[8];
+        private int size;
+
+        void add(long offset, int length) {
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+                lengths = Arrays.copyOf(lengths, size * 2);
+            }
+            offsets[size] = offset;
+            lengths[size] = length;
+            size++;
+        }
+    }
+
+    /** Reads a file line by line while keeping track of the byte offset each line starts at
+     */
+    public static class LineReader implements Closeable {
+        private final InputStream in;
+        private final byte[] buffer; // read from the file a block at a time, lines are found by scanning it
+        private final ByteArrayOutputStream line;
+        private int bufferPosition;
+        private int bufferLimit;
+        private long position; // byte offset of the next unread byte
+        private long lineOffset;
+        private int lineLength;
+
+        /** Constructor opens the file for reading
+         * @param fileIn: the file to read
+         * @throws IOException if the file cannot be opened
+         */
+        public LineReader(File fileIn) throws IOException {
+            in = new FileInputStream(fileIn);
+            buffer = new byte[8192];
+            line = new ByteArrayOutputStream(128);
+        }
+
+        /** Reads the next line
+         * @return Returns the line without its line break, or null at the end of the file
+         * @throws IOException if the file cannot be read
+         */
+        public String readLine() throws IOException {
+            line.reset();
+            lineOffset = position;
+            boolean ended = false;
+            while (!ended) {
+                if (bufferPosition == bufferLimit) {
+                    bufferLimit = Math.max(in.read(buffer), 0);
+                    bufferPosition = 0;
+                    if (bufferLimit == 0) { // end of the file
+                        if (position == lineOffset) {
+                            return null;
+                        }
+                        break;
+                    }
+                }
+                int start = bufferPosition;
+                while (bufferPosition < bufferLimit && buffer[bufferPosition] != '\n') {
+                    bufferPosition++;
+                }
+                line.write(buffer, start, bufferPosition - start); // copy the whole run up to the line break at once
+                position += bufferPosition - start;
+                if (bufferPosition < bufferLimit) { // skip the line break
+                    bufferPosition++;
+                    position++;
+                    ended = true;
+                }
+            }
+
+            byte[] bytes = line.toByteArray();
+            lineLength = bytes.length;
+            if (lineLength > 0 && bytes[lineLength - 1] == '\r') { // files saved on Windows
+                lineLength--;
+            }
+            return new String(bytes, 0, lineLength, Charset.defaultCharset());
+        }
+
+        /** Reads the byte offset of the line last returned by readLine
+         * @return Returns the offset of the start of the line
+         */
+        public long getLineOffset() {
+            return lineOffset;
+        }
+
+        /** Reads the length in bytes of the line last returned by readLine
+         * @return Returns the length of the line, not including the line break
+         */
+        public int getLineLength() {
+            return lineLength;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/** Running statistics for a group of scores, kept up to date as scores are added or replaced so that no
+ * query has to look back over the scores themselves. Mean and variance use Welford's method.
+ * Scores are only added and removed by the ContestStatistics that owns them, readers can only query.
+ * @author SLS2024 contributors
+ * @version 19/10/2026
+ */
+public class ScoreStats {
+    private final ScoreHistogram histogram;
+    private long count;
+    private double mean; // in centi-points
+    private double m2; // sum of squared differences from the mean, in centi-points squared
+
+    /** Constructor initialises empty statistics
+     */
+    public ScoreStats() {
+        histogram = new ScoreHistogram();
+    }
+
+    /** Adds a score
+     * @param centi: the score in centi-points
+     */
+    synchronized void add(short centi) {
+        count++;
+        double delta = centi - mean;
+        mean += delta / count;
+        m2 += delta * (centi - mean);
+        histogram.add(centi);
+    }
+
+    /** Removes a score that was added earlier, used when a skater's scores are overwritten
+     * @param centi: the score in centi-points
+     */
+    synchronized void remove(short centi) {
+        histogram.remove(centi);
+        if (count == 1) {
+            count = 0;
+            mean = 0;
+            m2 = 0;
+            return;
+        }
+        double oldMean = (count * mean - centi) / (count - 1); // undo one step of Welford's method
+        m2 -= (centi - oldMean) * (centi - mean);
+        if (m2 < 0) {
+            m2 = 0; // rounding
+        }
+        mean = oldMean;
+        count--;
+    }
+
+    /** Adds every score from another set of statistics into this one
+     * @param other: the statistics to merge in
+     */
+    synchronized void merge(ScoreStats other) {
+        synchronized (other) {
+            if (other.count == 0) {
+                return;
+            }
+            long total = count + other.count;
+            double delta = other.mean - mean;
+            mean += delta * other.count / total;
+            m2 += other.m2 + delta * delta * count * other.count / total;
+            count = total;
+            histogram.merge(other.histogram);
+        }
+    }
+
+    /** Gets the number of scores
+     * @return Returns the number of scores
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /** Gets the mean score
+     * @return Returns the mean in points, or 0 if there are no scores
+     */
+    public synchronized double getMean() {
+        return mean / CentiScore.SCALE;
+    }
+
+    /** Gets the population variance of the scores
+     * @return Returns the variance in points squared, or 0 if there are no scores
+     */
+    public synchronized double getVariance() {
+        return count == 0 ? 0 : m2 / count / (CentiScore.SCALE * CentiScore.SCALE);
+    }
+
+    /** Gets the population standard deviation of the scores
+     * @return Returns the standard deviation in points, or 0 if there are no scores
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /** Gets the lowest score
+     * @return Returns the lowest score in points, or 0 if there are no scores
+     */
+    public synchronized double getMin() {
+        return count == 0 ? 0 : CentiScore.toDouble(histogram.min());
+    }
+
+    /** Gets the highest score
+     * @return Returns the highest score in points, or 0 if there are no scores
+     */
+    public synchronized double getMax() {
+        return count == 0 ? 0 : CentiScore.toDouble(histogram.max());
+    }
+
+    /** Gets the score at a percentile, e.g. 50 for the median
+     * @param percentile: the percentile wanted (0-100)
+     * @return Returns the score in points, or 0 if there are no scores
+     */
+    public synchronized double getPercentile(double percentile) {
+        int centi = histogram.percentile(percentile);
+        return centi < 0 ? 0 : CentiScore.toDouble(centi);
+    }
+
+    /** Works out how a score ranks against the field
+     * @param score: the score in points
+     * @return Returns the percentage of the field that scored lower (ties count as half)
+     */
+    public synchronized double getPercentileRank(double score) {
+        return histogram.percentileRank(CentiScore.fromDouble(score));
+    }
+
+    /** Gets the number of scores in each one-point bucket
+     * @return Returns the 101 bucket counts, bucket i holding scores from i.00 to i.99
+     */
+    public synchronized int[] getHistogram() {
+        return histogram.getPointBuckets();
+    }
+
+    @Override
+    public synchronized String toString() {
+        if (count == 0) {
+            return "no scores";
+        }
+        return String.format("%d scores, mean %.2f, std dev %.2f, min %.2f, median %.2f, 90th %.2f, max %.2f",
+                count, getMean(), getStandardDeviation(), getMin(), getPercentile(50), getPercentile(90), getMax());
+    }
+}
@@ -1,3 +1,8 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 /** Class used to record the details of a skateboarder participating in the SLS competitions
  * @author Daniel Reid (u2143528)
  * @version 06/03/2024
@@ -10,6 +15,8 @@ public class Skater {
     private final String nationality;
     private final String gender;
     private final SkaterScore skaterScore;
+    private final List<ChangeFeed> changeFeeds; // feeds of the lists this skater is on, told about score changes
+    private final List<ContestList> calendars; // calendars of the lists this skater is on, whose scores may still be on disk
 
     /** Constructor initialises the name, stance, nationality, and gender of the Skater
      * @param nameIn: name of skater
@@ -18,23 +25,32 @@ public class Skater {
      * @param genderIn: gender of skater (for simplicity's sake can only be male or female)
      */
     public Skater(String nameIn, String stanceIn, String nationalityIn, String genderIn) {
+        checkDetails(stanceIn, genderIn);
         name = nameIn;
+        stance = stanceIn;
+        nationality = nationalityIn;
+        gender = genderIn;
 
+        skaterScore = new SkaterScore();
+        changeFeeds = new CopyOnWriteArrayList<>();
+        calendars = new CopyOnWriteArrayList<>();
+    }
+
+    /** Checks a skater's stance and gender are valid, so details can be checked before a skater is created
+     * @param stance: the stance to check
+     * @param gender: the gender to check
+     * @throws IllegalArgumentException if either is not one of the allowed values
+     */
+    static void checkDetails(String stance, String gender) {
         // Stance validation
-        if (!stanceIn.equalsIgnoreCase("regular") && !stanceIn.equalsIgnoreCase("goofy")) {
+        if (!stance.equalsIgnoreCase("regular") && !stance.equalsIgnoreCase("goofy")) {
             throw new IllegalArgumentException("Stance must be either 'Regular' or 'Goofy'");
         }
-        stance = stanceIn;
-
-        nationality = nationalityIn;
 
         // Gender validation
-        if (!genderIn.equalsIgnoreCase("male") && !genderIn.equalsIgnoreCase("female")) {
+        if (!gender.equalsIgnoreCase("male") && !gender.equalsIgnoreCase("female")) {
             throw new IllegalArgumentException("Gender must be either 'Male' or 'Female'");
         }
-        gender = genderIn;
-
-        skaterScore = new SkaterScore();
     }
 
     /** Reads the name of the Skater
@@ -65,7 +81,7 @@ public class Skater {
         return gender;
     }
 
-    /** Add scores for the skater at a specific contest
+    /** Add scores for the skater at a specific contest, each score is kept to the nearest hundredth of a point
      * @param contest: the contest we wish to add scores to
      * @param scoresArray: the array of scores we wish to add
      */
@@ -83,7 +99,61 @@ public class Skater {
         }
 
         // Add scores if all checks pass
-        skaterScore.addScores(contest, scoresArray);
+        storeScores(contest, CentiScore.encode(scoresArray));
+    }
+
+    /** Add scores in centi-points for the skater at a specific contest
+     * @param contest: the contest we wish to add scores to
+     * @param centiScores: the array of scores in centi-points (0-10000) we wish to add
+     */
+    public void addCentiScores(Contest contest, short[] centiScores) {
+        checkCentiScores(centiScores);
+        storeScores(contest, centiScores);
+    }
+
+    /** Put scores read from the save file in place for the skater at a specific contest. Loading is not a change,
+     * so nothing is published and no revision is recorded (called while a tour or contest is being loaded).
+     * @param contest: the contest the scores belong to
+     * @param centiScores: the array of scores in centi-points (0-10000)
+     * @param history: the revisions saved with the scores, or null if the file was saved before they were kept
+     */
+    synchronized void loadScores(Contest contest, short[] centiScores, ScoreHistory history) {
+        checkCentiScores(centiScores);
+        if (history == null || history.getTotal() == 0) { // when these scores were entered is not known, so date them before everything else
+            history = new ScoreHistory();
+            history.append(centiScores, 0);
+        } else if (!Arrays.equals(history.getLatest(), centiScores)) { // the current scores are the latest revision, so the two must agree
+            System.out.println("Scores for " + name + " at " + contest.getLocation() + " do not match their last revision, keeping the scores.");
+            history.append(centiScores, 0); // append keeps times in order, so this is dated with the revision before it
+        }
+        short[] previous = skaterScore.getCentiScores(contest);
+        skaterScore.loadHistory(contest, history);
+        contest.recordScores(previous, centiScores);
+    }
+
+    private static void checkCentiScores(short[] centiScores) {
+        if (centiScores.length != NUM_SCORES) {
+            throw new IllegalArgumentException("Exactly 7 scores (2 runs and 5 tricks) must be provided.");
+        }
+
+        for (short score : centiScores) {
+            if (score < 0 || score > CentiScore.MAX) {
+                throw new IllegalArgumentException("Scores must be between 0.0 and 100.0.");
+            }
+        }
+    }
+
+    private void storeScores(Contest contest, short[] centiScores) {
+        contest.ensureScoresLoaded(); // so scores still on disk can't later overwrite these, done first as it takes the contest's lock
+        synchronized (this) { // publish before the next write to this skater, so listeners see the changes in the order they were made
+            short[] previous = skaterScore.getCentiScores(contest);
+            skaterScore.addCentiScores(contest, centiScores);
+            contest.recordScores(previous, centiScores);
+
+            for (ChangeFeed feed : changeFeeds) {
+                feed.publish(ChangeEvent.scoresUpdated(this, contest, previous, centiScores));
+            }
+        }
     }
 
 
@@ -91,30 +161,117 @@ public class Skater {
      * @return the scores for the skater
      */
     public Double[] getScores(Contest contest) {
+        contest.ensureScoresLoaded();
         return skaterScore.getScores(contest);
     }
 
+    /** Get scores in centi-points for the skater at a specific contest
+     * @return a copy of the scores in centi-points, or null if there are none
+     */
+    public short[] getCentiScores(Contest contest) {
+        contest.ensureScoresLoaded();
+        return skaterScore.getCentiScores(contest);
+    }
+
+    /** Get scores in centi-points for the skater at a specific contest without reading any still on disk, for
+     * bookkeeping that runs while a contest is being loaded
+     * @return a copy of the scores in centi-points, or null if there are none in memory
+     */
+    short[] getLoadedCentiScores(Contest contest) {
+        return skaterScore.getCentiScores(contest);
+    }
+
     public double getTotalScore(Contest contest) {
-        double total = 0;
+        return CentiScore.toDouble(getTotalCentiScore(contest));
+    }
+
+    /** Get the exact total of the skater's scores at a specific contest
+     * @return the total in centi-points, or 0 if the skater has no scores
+     */
+    public int getTotalCentiScore(Contest contest) {
+        contest.ensureScoresLoaded();
+        return skaterScore.getTotalCentiScore(contest);
+    }
+
+    /** Get every set of scores entered for the skater at a specific contest, including corrections
+     * @param contest: the contest we wish to retrieve the revisions of
+     * @return a copy of the revisions still held in memory, oldest first, or an empty list if the skater has no scores
+     */
+    public List<ScoreHistory.Revision> getScoreRevisions(Contest contest) {
+        ScoreHistory history = getScoreHistory(contest);
+        return history == null ? new ArrayList<>() : history.getRevisions();
+    }
+
+    /** Get the history itself, for saving and archiving it, other callers read the revisions instead
+     * @param contest: the contest we wish to retrieve the history of
+     * @return the history, or null if the skater has no scores
+     */
+    ScoreHistory getScoreHistory(Contest contest) {
+        contest.ensureScoresLoaded();
+        return skaterScore.getHistory(contest);
+    }
 
-        Double[] scores = skaterScore.getScores(contest);
 
-        if (scores == null) {
-            return total;
+    /** Remove the skater's scores and their history at a contest, called by SkaterList when the skater leaves the tour
+     * @param contest: the contest we wish to remove the scores from
+     */
+    synchronized void removeScores(Contest contest) {
+        short[] previous = skaterScore.removeScores(contest);
+        if (previous != null) {
+            contest.recordScores(previous, null);
         }
+    }
+
+    /** Get the contests the skater has scores at, on every tour they are on
+     * @return the contests
+     */
+    List<Contest> getScoredContests() {
+        return skaterScore.getContests();
+    }
 
-        for (Double score : scores) {
-            total += score;
+    /** Publish this skater's score changes on a feed (called by SkaterList when the skater joins a list)
+     * @param feed: the feed to publish to
+     */
+    void addChangeFeed(ChangeFeed feed) {
+        if (!changeFeeds.contains(feed)) {
+            changeFeeds.add(feed);
         }
+    }
+
+    /** Stop publishing this skater's score changes on a feed
+     * @param feed: the feed to stop publishing to
+     */
+    void removeChangeFeed(ChangeFeed feed) {
+        changeFeeds.remove(feed);
+    }
 
-        return total;
+    /** Read scores still on disk for the contests of a calendar before answering questions about all of the
+     * skater's scores (called by SkaterList when the skater joins a list that has a calendar)
+     * @param calendar: the contests of the list's tour
+     */
+    void addCalendar(ContestList calendar) {
+        if (!calendars.contains(calendar)) {
+            calendars.add(calendar);
+        }
     }
 
+    /** Stop reading a calendar's scores in for this skater
+     * @param calendar: the contests of the list's tour
+     */
+    void removeCalendar(ContestList calendar) {
+        calendars.remove(calendar);
+    }
 
     /** Get true or false if the skater has scores in a specific contest
      * @return true or false if the skater has scores
      */
     public boolean hasScores() {
+        if (skaterScore.hasScores()) {
+            return true;
+        }
+        for (ContestList calendar : calendars) { // any still on disk in --lazy mode might be theirs
+            calendar.ensureAllScoresLoaded();
+        }
         return skaterScore.hasScores();
     }
 
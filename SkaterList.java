@@ -1,4 +1,5 @@
 import java.util.ArrayList;
+import java.util.List;
 
 /** Collection class to hold a list of skaters
  * @author Daniel Reid (u2143528)
@@ -7,11 +8,46 @@ import java.util.ArrayList;
 public class SkaterList {
     private ArrayList<Skater> skaterList;
     public static final int MAX = 8;
+    private ChangeFeed changeFeed; // optional feed that is told about roster and score changes
+    private ContestList contestList; // optional calendar the roster competes on, see removeSkater
+    private final NameIndex nameIndex; // trie of names for exact, prefix and fuzzy lookups
 
     /** Constructor initialises the empty skater list
      */
     public SkaterList() {
         skaterList = new ArrayList<>();
+        nameIndex = new NameIndex();
+    }
+
+    /** Sets the feed that changes to the roster, and to the scores of every skater on it, are published on
+     * @param feedIn: the feed to publish to, or null to stop publishing
+     */
+    public void setChangeFeed(ChangeFeed feedIn) {
+        for (Skater skater : skaterList) {
+            if (changeFeed != null) {
+                skater.removeChangeFeed(changeFeed);
+            }
+            if (feedIn != null) {
+                skater.addChangeFeed(feedIn);
+            }
+        }
+        changeFeed = feedIn;
+    }
+
+    /** Sets the calendar the skaters on this list compete on. A skater removed from the list loses their scores at
+     * these contests only, so their results on any other tour are kept.
+     * @param contestListIn: the contests of the same tour, or null if every contest the skater has scores at counts
+     */
+    public void setContestList(ContestList contestListIn) {
+        for (Skater skater : skaterList) {
+            if (contestList != null) {
+                skater.removeCalendar(contestList);
+            }
+            if (contestListIn != null) {
+                skater.addCalendar(contestListIn);
+            }
+        }
+        contestList = contestListIn;
     }
 
     /** Adds a new skater to the list
@@ -21,18 +57,41 @@ public class SkaterList {
     public boolean addSkater(Skater sIn) {
         if(!isFull()) {
             skaterList.add(sIn);
+            nameIndex.add(sIn);
+            if (contestList != null) {
+                sIn.addCalendar(contestList);
+            }
+            if (changeFeed != null) {
+                sIn.addChangeFeed(changeFeed);
+                changeFeed.publish(ChangeEvent.skaterAdded(sIn));
+            }
             return true;
         } else {
             return false;
         }
     }
 
-    /** Removes a skater from the list
+    /** Removes a skater from the list along with their scores, so they drop out of every contest's statistics and
+     * start again with no scores if they are added back
      * @param index: the skater we are removing
      */
     public void removeSkater(int index) {
         if (index >= 0 && index < getTotal()) {
-            skaterList.remove(index);
+            Skater removed = skaterList.remove(index);
+            nameIndex.remove(removed);
+            if (contestList != null) {
+                contestList.ensureAllScoresLoaded(); // scores still on disk would otherwise come back if they are added again
+                removed.removeCalendar(contestList);
+            }
+            for (Contest contest : removed.getScoredContests()) {
+                if (contestList == null || contestList.containsContest(contest)) {
+                    removed.removeScores(contest);
+                }
+            }
+            if (changeFeed != null) {
+                removed.removeChangeFeed(changeFeed);
+                changeFeed.publish(ChangeEvent.skaterRemoved(removed));
+            }
             System.out.println("Skater removed from list...");
         } else {
             System.out.println("Invalid index!");
@@ -56,12 +115,26 @@ public class SkaterList {
      * @return Returns the skater position in the list or null if there is no skater with the specified name
      */
     public Skater getSkaterByName(String name) {
-        for (Skater skater : this.skaterList) {
-            if (skater.getName().equalsIgnoreCase(name)) {
-                return skater;
-            }
-        }
-        return null;
+        return nameIndex.findExact(name);
+    }
+
+    /** Finds skaters whose names start with the given text (not case sensitive), for type-ahead search
+     * @param prefix: the start of the name
+     * @param limit: the most skaters to return
+     * @return Returns the matching skaters in alphabetical order
+     */
+    public List<Skater> findSkatersByPrefix(String prefix, int limit) {
+        return nameIndex.findByPrefix(prefix, limit);
+    }
+
+    /** Finds skaters whose names are close to the given name, to allow for typos
+     * @param name: the name to match
+     * @param maxDistance: the most typos (letters inserted, deleted or changed) allowed
+     * @param limit: the most skaters to return
+     * @return Returns the matching skaters, closest first
+     */
+    public List<Skater> findSkatersByFuzzyName(String name, int maxDistance, int limit) {
+        return nameIndex.findFuzzy(name, maxDistance, limit);
     }
 
     /** Reports whether the list is empty or not
@@ -1,16 +1,19 @@
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 /** Class used to store the scores for each skater at each contest
  * @author Daniel Reid (u2143528)
  * @version 06/03/2024
  */
 public class SkaterScore {
-    private final HashMap<Contest, Double[]> scores; // contest mapped to an array of scores
+    // a concurrent map so scores can be read without the Skater's lock, which only writers take
+    private final ConcurrentHashMap<Contest, ScoreHistory> histories; // contest mapped to every set of scores entered in centi-points (see CentiScore), the latest is the current scores
 
     /** Constructor initialises empty skater score hash map
      */
     public SkaterScore() {
-        scores = new HashMap<>();
+        histories = new ConcurrentHashMap<>();
     }
 
     /** Add scores for a skater at a specific contest
@@ -18,22 +21,90 @@ public class SkaterScore {
      * @param scoresArray: the scores we are adding
      */
     public void addScores(Contest contest, Double[] scoresArray) {
-        scores.put(contest, scoresArray);
+        addCentiScores(contest, CentiScore.encode(scoresArray));
+    }
+
+    /** Add scores already in centi-points for a skater at a specific contest
+     * @param contest: the contest we are adding scores to
+     * @param centiScores: the scores we are adding in centi-points
+     */
+    public void addCentiScores(Contest contest, short[] centiScores) {
+        ScoreHistory history = histories.get(contest);
+        if (history == null) { // only put in place once it holds the scores, so readers never see an empty history
+            history = new ScoreHistory();
+            history.append(centiScores, System.currentTimeMillis());
+            histories.put(contest, history);
+        } else {
+            history.append(centiScores, System.currentTimeMillis());
+        }
+    }
+
+    /** Put the history of scores read from a save file in place for a skater at a specific contest, without
+     * recording a new revision
+     * @param contest: the contest the scores belong to
+     * @param history: the revisions saved with the scores, the latest of which is the current scores
+     */
+    void loadHistory(Contest contest, ScoreHistory history) {
+        histories.put(contest, history);
+    }
+
+    /** Remove a skater's scores and their history at a specific contest
+     * @param contest: the contest we are removing scores from
+     * @return the scores that were removed in centi-points, or null if there were none
+     */
+    public short[] removeScores(Contest contest) {
+        ScoreHistory history = histories.remove(contest);
+        return history == null ? null : history.getLatest();
+    }
+
+    /** Get the contests a skater has scores at
+     * @return a copy of the contests
+     */
+    public List<Contest> getContests() {
+        return new ArrayList<>(histories.keySet());
+    }
+
+    /** Get the history of scores entered for a skater at a specific contest
+     * @param contest: the contest we wish to retrieve the history of
+     * @return the history, or null if no scores have been entered
+     */
+    ScoreHistory getHistory(Contest contest) {
+        return histories.get(contest);
     }
 
 
     /** Get scores for a skater at a specific contest
      * @param contest: the contest we wish to retrieve the scores from
+     * @return the scores in points, or null if there are none
      */
     public Double[] getScores(Contest contest) {
-        return scores.get(contest);
+        short[] centi = getCentiScores(contest);
+        return centi == null ? null : CentiScore.decode(centi);
+    }
+
+    /** Get scores in centi-points for a skater at a specific contest
+     * @param contest: the contest we wish to retrieve the scores from
+     * @return a copy of the scores in centi-points, or null if there are none
+     */
+    public short[] getCentiScores(Contest contest) {
+        ScoreHistory history = histories.get(contest);
+        return history == null ? null : history.getLatest();
+    }
+
+    /** Get the exact total of a skater's scores at a specific contest
+     * @param contest: the contest we wish to total
+     * @return the total in centi-points, or 0 if there are no scores
+     */
+    public int getTotalCentiScore(Contest contest) {
+        short[] centi = getCentiScores(contest);
+        return centi == null ? 0 : CentiScore.sum(centi);
     }
 
     /** Check to see if scores exist for the skater
      * @return true or false depending on if the list is populated or not
      */
     public boolean hasScores() {
-        return !scores.isEmpty();
+        return !histories.isEmpty();
     }
 
 
@@ -0,0 +1,250 @@
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Class used to hold one tour (e.g. men's, women's or juniors) with its own contests, roster, scores and save file
+ * @author SLS2024 contributors
+ * @version 19/10/2026
+ */
+public class Tour {
+
+    /** How the tour's save file is read and written
+     */
+    public enum StorageMode {
+        TEXT,
+        LAZY_TEXT,
+        BINARY
+    }
+
+    private final String name;
+    private final String fileName;
+    private final StorageMode mode;
+    private final AthleteDictionary athletes;
+    private final ContestList contestList;
+    private final SkaterList skaterList;
+    private final ChangeFeed changeFeed;
+    private final VersionedModel versionedModel;
+    private final ConcurrentHashMap<Skater, CareerProfile> profiles; // each skater's results on this tour only
+
+    /** Constructor initialises an empty tour, tours are created through a TourRegistry
+     * @param nameIn: the name of the tour
+     * @param fileNameIn: the file the tour is loaded from and saved to
+     * @param modeIn: how the file is read and written
+     * @param athletesIn: the athletes shared with the other tours
+     */
+    Tour(String nameIn, String fileNameIn, StorageMode modeIn, AthleteDictionary athletesIn) {
+        name = nameIn;
+        fileName = fileNameIn;
+        mode = modeIn;
+        athletes = athletesIn;
+        contestList = new ContestList();
+        skaterList = new SkaterList();
+        // skaters can be on several tours, so only pass on score changes for this tour's contests
+        changeFeed = new ChangeFeed(event -> event.getType() != ChangeEvent.Type.SCORES_UPDATED
+                || contestList.containsContest(event.getContest()));
+        contestList.setChangeFeed(changeFeed);
+        skaterList.setChangeFeed(changeFeed);
+        skaterList.setContestList(contestList);
+        versionedModel = new VersionedModel(contestList, skaterList, changeFeed);
+        profiles = new ConcurrentHashMap<>();
+        changeFeed.addListener(this::updateProfiles);
+    }
+
+    /** Reads the name of the tour
+     * @return Returns the name of the tour
+     */
+    public String getName() {
+        return name;
+    }
+
+    /** Reads the name of the tour's save file
+     * @return Returns the file name
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /** Reads the tour's contests
+     * @return Returns the contest list
+     */
+    public ContestList getContestList() {
+        return contestList;
+    }
+
+    /** Reads the tour's skaters
+     * @return Returns the skater list
+     */
+    public SkaterList getSkaterList() {
+        return skaterList;
+    }
+
+    /** Reads the feed that this tour's changes are published on
+     * @return Returns the change feed
+     */
+    public ChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+
+    /** Reads the latest consistent version of the tour for reports, exports and other long reads. In --lazy mode any
+     * scores still on disk are read in first, so the snapshot always holds the full standings.
+     * @return Returns the current snapshot of the tour
+     */
+    public ModelSnapshot snapshot() {
+        contestList.ensureAllScoresLoaded(); // does nothing once every contest has been read in
+        return versionedModel.snapshot();
+    }
+
+    /** Reads the athletes shared with the other tours
+     * @return Returns the athlete dictionary
+     */
+    public AthleteDictionary getAthletes() {
+        return athletes;
+    }
+
+    /** Loads the tour from its save file
+     */
+    public synchronized void load() {
+        switch (mode) {
+            case BINARY:
+                TourStorage.loadDataFromBinaryFile(fileName, contestList, skaterList, athletes);
+                break;
+            case LAZY_TEXT:
+                TourStorage.loadDataFromFileLazily(fileName, contestList, skaterList, athletes, this::scoresLoaded);
+                return; // each contest reports its own scores when they are read in
+            default:
+                TourStorage.loadDataFromFile(fileName, contestList, skaterList, athletes);
+        }
+        for (int i = 1; i <= contestList.getTotal(); i++) {
+            scoresLoaded(contestList.getContest(i));
+        }
+    }
+
+    private void scoresLoaded(Contest contest) { // loaded scores are not published as changes, so bring the snapshot and profiles up to date here
+        versionedModel.load(contest);
+        for (Skater skater : versionedModel.snapshot().getSkaters()) {
+            short[] centi = skater.getLoadedCentiScores(contest); // the contest is being loaded, so this must not wait on it
+            if (centi != null) {
+                profile(skater).record(contest, centi);
+            }
+        }
+    }
+
+    private void updateProfiles(List<ChangeEvent> events) {
+        for (ChangeEvent event : events) {
+            switch (event.getType()) {
+                case SCORES_UPDATED: {
+                    short[] centi = event.getSkater().getLoadedCentiScores(event.getContest()); // the latest, in case this event was held back
+                    if (centi == null) {
+                        profile(event.getSkater()).forget(event.getContest());
+                    } else {
+                        profile(event.getSkater()).record(event.getContest(), centi);
+                    }
+                    break;
+                }
+                case CONTEST_REMOVED:
+                    for (CareerProfile profile : profiles.values()) {
+                        profile.forget(event.getContest());
+                    }
+                    break;
+                case SKATER_REMOVED:
+                    profiles.remove(event.getSkater());
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private CareerProfile profile(Skater skater) {
+        return profiles.computeIfAbsent(skater, key -> new CareerProfile(contestList));
+    }
+
+    /** Reads the running summary of a skater's results on this tour, loading any scores still on disk first
+     * @param skater: the skater
+     * @return Returns the skater's career profile for this tour
+     */
+    public CareerProfile getProfile(Skater skater) {
+        contestList.ensureAllScoresLoaded();
+        return profile(skater);
+    }
+
+    /** Saves the tour to its save file
+     */
+    public synchronized void save() {
+        if (mode == StorageMode.BINARY) {
+            TourStorage.saveDataToBinaryFile(fileName, contestList, skaterList);
+        } else {
+            TourStorage.saveDataToFile(fileName, contestList, skaterList);
+        }
+    }
+
+    /** Moves score revisions entered before a time out of memory and onto the end of the tour's archive file.
+     * Each skater's scores as they stood at the cutoff are kept, so the history from then on is unchanged, and
+     * the lookups below read the archive for anything older.
+     * @param cutoff: the time in milliseconds, revisions before it are archived
+     * @return Returns the number of revisions archived, or -1 if the archive could not be written and nothing was removed
+     */
+    public synchronized int archiveScoreHistory(long cutoff) {
+        return TourStorage.archiveRevisions(getArchiveFileName(), contestList, skaterList, cutoff);
+    }
+
+    /** Reads a skater's scores at a contest as they were at a time, including revisions that have been archived
+     * @param skater: the skater
+     * @param contest: the contest
+     * @param time: the time in milliseconds
+     * @return Returns the scores in points, or null if they had none by then
+     */
+    public Double[] getScoresAsOfTime(Skater skater, Contest contest, long time) {
+        ScoreHistory history = skater.getScoreHistory(contest);
+        if (history != null && time >= history.getEarliestTime()) {
+            return CentiScore.decode(history.asOfTime(time));
+        }
+        ScoreHistory.Revision found = null;
+        for (ScoreHistory.Revision revision : TourStorage.readArchivedRevisions(getArchiveFileName(), skater, contest)) {
+            if (revision.getTime() <= time) {
+                found = revision;
+            }
+        }
+        return found == null ? null : CentiScore.decode(found.getScores());
+    }
+
+    /** Reads a skater's scores at a contest as they were at a revision, including revisions that have been archived
+     * @param skater: the skater
+     * @param contest: the contest
+     * @param revision: the revision number
+     * @return Returns the scores in points, or null if they had none by then
+     */
+    public Double[] getScoresAsOfRevision(Skater skater, Contest contest, long revision) {
+        ScoreHistory history = skater.getScoreHistory(contest);
+        if (history != null && revision >= history.getEarliestRevision()) {
+            return CentiScore.decode(history.asOfRevision(revision));
+        }
+        List<ScoreHistory.Revision> archived = TourStorage.readArchivedRevisions(getArchiveFileName(), skater, contest);
+        for (int i = archived.size() - 1; i >= 0; i--) {
+            if (archived.get(i).getRevision() <= revision) {
+                return CentiScore.decode(archived.get(i).getScores());
+            }
+        }
+        return null;
+    }
+
+    /** Reads the name of the file old score revisions are archived to
+     * @return Returns the save file name with its .txt or .bin extension replaced by .archive.txt
+     */
+    public String getArchiveFileName() {
+        return fileName.replaceFirst("\\.(txt|bin)$", "") + ".archive.txt";
+    }
+
+    /** Gets the default save file name for a tour
+     * @param tourName: the name of the tour
+     * @param mode: how the file is written
+     * @return Returns the tour name with a .bin or .txt extension
+     */
+    public static String defaultFileName(String tourName, StorageMode mode) {
+        return tourName + (mode == StorageMode.BINARY ? ".bin" : ".txt");
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + contestList.getTotal() + " contests, " + skaterList.getTotal() + " skaters)";
+    }
+}
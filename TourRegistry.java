@@ -0,0 +1,81 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/** Hosts several isolated tours in one process, all sharing one dictionary of athletes
+ * @author SLS2024 contributors
+ * @version 19/10/2026
+ */
+public class TourRegistry {
+    private final LinkedHashMap<String, Tour> tours; // tour name (lower case) mapped to the tour, in the order they were opened
+    private final AthleteDictionary athletes;
+
+    /** Constructor initialises an empty registry
+     */
+    public TourRegistry() {
+        tours = new LinkedHashMap<>();
+        athletes = new AthleteDictionary();
+    }
+
+    /** Creates a tour and loads it from its save file
+     * @param name: the name of the tour
+     * @param fileName: the file the tour is loaded from and saved to
+     * @param mode: how the file is read and written
+     * @return Returns the new tour
+     */
+    public synchronized Tour openTour(String name, String fileName, Tour.StorageMode mode) {
+        if (tours.containsKey(name.toLowerCase())) {
+            throw new IllegalArgumentException("A tour called " + name + " is already open");
+        }
+        Tour tour = new Tour(name, fileName, mode, athletes);
+        tours.put(name.toLowerCase(), tour);
+        tour.load();
+        return tour;
+    }
+
+    /** Reads a tour by its name
+     * @param name: the name of the tour (not case sensitive)
+     * @return Returns the tour, or null if there is no tour with that name
+     */
+    public synchronized Tour getTour(String name) {
+        return tours.get(name.toLowerCase());
+    }
+
+    /** Reads every open tour
+     * @return Returns a list of the tours in the order they were opened
+     */
+    public synchronized List<Tour> getTours() {
+        return new ArrayList<>(tours.values());
+    }
+
+    /** Saves and closes a tour
+     * @param name: the name of the tour (not case sensitive)
+     * @return Returns true if the tour was open and has been closed
+     */
+    public synchronized boolean closeTour(String name) {
+        Tour tour = tours.remove(name.toLowerCase());
+        if (tour == null) {
+            return false;
+        }
+        tour.save();
+        tour.getChangeFeed().close();
+        return true;
+    }
+
+    /** Saves every tour to its own file and closes them all
+     */
+    public synchronized void closeAll() {
+        for (Tour tour : tours.values()) {
+            tour.save();
+            tour.getChangeFeed().close();
+        }
+        tours.clear();
+    }
+
+    /** Reads the athletes shared by all the tours
+     * @return Returns the athlete dictionary
+     */
+    public AthleteDictionary getAthletes() {
+        return athletes;
+    }
+}
@@ -0,0 +1,420 @@
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Scanner;
+import java.util.function.Consumer;
+
+/** Reads and writes a tour's save file. The text format has "Destination:" and "Skater:" lines, then an "Index:"
+ * line for each contest giving where its block of score lines starts, then the blocks themselves. Each "Scores:"
+ * line is followed by a "Revision:" line for every revision in its history. The binary format is handled by
+ * BinaryScoreFile.
+ * @author SLS2024 contributors
+ * @version 19/10/2026
+ */
+public final class TourStorage {
+
+    private TourStorage() {
+        // only static helpers
+    }
+
+//      LOAD FILE DATA
+    /** Loads a tour from a text save file, creating the file if it does not exist yet
+     * @param fileName: the file to read
+     * @param contestList: the list the contests are added to
+     * @param skaterList: the list the skaters are added to
+     * @param athletes: the dictionary skaters are shared through
+     */
+    public static void loadDataFromFile(String fileName, ContestList contestList, SkaterList skaterList, AthleteDictionary athletes) {
+        File file = new File(fileName); // each tour has its own file
+        try {
+            if (!file.exists()) { // if the file does not exist, create a new file
+                file.createNewFile();
+                System.out.println("File created: " + fileName);
+            }
+            Scanner scanner = new Scanner(file); // We use the scanner to look through the text in the file
+            List<String> scoreLines = new ArrayList<>(); // read once every skater and contest is known
+            while (scanner.hasNextLine()) {
+                String line = scanner.nextLine(); // each line of the file
+                String[] parts = line.split(":"); // splitting the data by the colon into two parts
+                String type = parts[0].trim(); // this will be the switch case
+                String data = parts[1].trim(); // this will be the data we use in the application
+
+                switch (type) {
+                    case "Destination":
+                        contestList.addContest(parseContest(data)); // create a new contest with this information
+                        break;
+                    case "Index":
+                        break; // only needed when loading scores on demand
+                    case "Skater":
+//                        SINCE WE CHECK THE DATA IS CORRECTLY FORMATTED INSIDE THE APPLICATION, NO CHECKS ARE REQUIRED HERE
+                        skaterList.addSkater(parseSkater(data, athletes)); // create a new skater with this information, or reuse them if another tour has them
+                        break;
+                    case "Scores":
+                    case "Revision":
+                        scoreLines.add(line);
+                        break;
+                    default:
+                        System.out.println("Unknown data type in file: " + type); // this should never occur due to the checks we have inplace in our application, but this is here just in case
+                }
+            }
+            loadScoreLines(scoreLines, contestList, skaterList, true);
+        } catch (IOException e) { // If for some reason we cannot load the file
+            System.out.println("An error occurred while loading data from file: " + e.getMessage());
+        }
+    }
+
+
+//      LAZY LOAD FILE DATA
+    /** Loads a tour's contests and skaters from a text save file, leaving each contest's scores on disk until
+     * the contest is first used
+     * @param fileName: the file to read
+     * @param contestList: the list the contests are added to
+     * @param skaterList: the list the skaters are added to
+     * @param athletes: the dictionary skaters are shared through
+     * @param onScoresLoaded: told about each contest once its scores have been read in
+     */
+    public static void loadDataFromFileLazily(String fileName, ContestList contestList, SkaterList skaterList, AthleteDictionary athletes,
+                                              Consumer<Contest> onScoresLoaded) {
+        File file = new File(fileName);
+        try {
+            if (!file.exists()) { // if the file does not exist, create a new file
+                file.createNewFile();
+                System.out.println("File created: " + fileName);
+            }
+            ScoreIndex scoreIndex = new ScoreIndex(file, skaterList, onScoresLoaded); // remembers where each contest's scores are in the file
+            List<String> indexLines = new ArrayList<>(); // "Index:" lines say where each contest's block of scores starts
+            try (ScoreIndex.LineReader reader = new ScoreIndex.LineReader(file)) { // reads lines and tells us where each one starts
+                String line;
+                boolean headerRead = false;
+                while (!headerRead && (line = reader.readLine()) != null) {
+                    String[] parts = line.split(":"); // same layout as loadDataFromFile
+                    String type = parts[0].trim();
+                    String data = parts[1].trim();
+
+                    switch (type) {
+                        case "Destination":
+                            contestList.addContest(parseContest(data));
+                            break;
+                        case "Skater":
+                            skaterList.addSkater(parseSkater(data, athletes));
+                            break;
+                        case "Index":
+                            indexLines.add(data);
+                            break;
+                        case "Scores":
+                        case "Revision":
+                            if (!indexLines.isEmpty()) { // the scores follow the index, so there is no need to read any further
+                                for (String index : indexLines) {
+                                    String[] indexData = index.split(",");
+                                    scoreIndex.addEntry(indexData[0].trim(), reader.getLineOffset() + Long.parseLong(indexData[1].trim()),
+                                            Integer.parseInt(indexData[2].trim()));
+                                }
+                                headerRead = true;
+                                break;
+                            }
+                            String[] scoresData = data.split(",", 3); // a file saved before the index was added, note each line
+                            if (scoresData.length < 3) {
+                                System.out.println("Invalid Scores data: " + data);
+                                break;
+                            }
+                            scoreIndex.addEntry(scoresData[1].trim(), reader.getLineOffset(), reader.getLineLength()); // only note where the scores are
+                            break;
+                        default:
+                            System.out.println("Unknown data type in file: " + type);
+                    }
+                }
+            }
+            scoreIndex.attach(contestList); // each contest loads its own scores the first time they are needed
+            System.out.println(scoreIndex.getPendingTotal() + " contests' scores indexed for loading on demand.");
+        } catch (IOException e) { // If for some reason we cannot load the file
+            System.out.println("An error occurred while loading data from file: " + e.getMessage());
+        }
+    }
+
+//      SCORE AND REVISION LINES
+    /** Puts the scores on "Scores:" lines in place, each with the history on the "Revision:" lines that follow it.
+     * Loading is not a change, so nothing is published and every revision keeps its saved number and time.
+     * @param lines: the lines, in the order they were saved
+     * @param contestList: the contests the lines are resolved against
+     * @param skaterList: the skaters the lines are resolved against
+     * @param report: true to print each set of scores as it is added
+     */
+    static void loadScoreLines(List<String> lines, ContestList contestList, SkaterList skaterList, boolean report) {
+        Skater skater = null; // the entry that the "Revision:" lines being read belong to
+        Contest contest = null;
+        short[] scores = null;
+        ScoreHistory history = null;
+        for (String line : lines) {
+            String type = line.substring(0, line.indexOf(':')).trim();
+            String data = line.substring(line.indexOf(':') + 1).trim();
+            if (type.equals("Scores")) {
+                if (scores != null) {
+                    skater.loadScores(contest, scores, history);
+                }
+                scores = null;
+                String[] scoresData = data.split(",", 3); // Limit the split to 3 parts as the array also uses comma
+                if (scoresData.length < 3) {
+                    System.out.println("Invalid Scores data: " + data);
+                    continue;
+                }
+                skater = skaterList.getSkaterByName(scoresData[0].trim());
+                contest = contestList.getContestByName(scoresData[1].trim());
+                if (skater != null && contest != null) {
+                    if (report) {
+                        System.out.println("Adding scores to skater: " + skater.getName() + " for contest: " + contest.getLocation());
+                    }
+                    scores = CentiScore.encode(parseScores(scoresData[2].trim()));
+                    history = new ScoreHistory();
+                } else {
+                    System.out.println("Skater or contest not found: " + scoresData[0].trim() + ", " + scoresData[1].trim());
+                }
+            } else if (type.equals("Revision") && scores != null) {
+                ScoreHistory.Revision revision = parseRevision(data);
+                String[] revisionData = data.split(",");
+                if (revision == null || !revisionData[0].trim().equalsIgnoreCase(skater.getName())
+                        || !revisionData[1].trim().equalsIgnoreCase(contest.getLocation())) {
+                    System.out.println("Invalid Revision data: " + data);
+                    continue;
+                }
+                history.restore(revision.getRevision(), revision.getTime(), revision.getScores());
+            }
+        }
+        if (scores != null) {
+            skater.loadScores(contest, scores, history);
+        }
+    }
+
+    /** Writes the "Revision:" line for one revision of a skater's scores at a contest
+     * @param skater: the skater
+     * @param contest: the contest
+     * @param revision: the revision
+     * @return Returns the line, without a line break
+     */
+    static String formatRevision(Skater skater, Contest contest, ScoreHistory.Revision revision) {
+        return "Revision: " + skater.getName() + ", " + contest.getLocation() + ", " + revision.getRevision() + ", "
+                + revision.getTime() + ", " + Arrays.toString(CentiScore.decode(revision.getScores()));
+    }
+
+    private static ScoreHistory.Revision parseRevision(String data) { // name, location, revision, time, [scores]
+        String[] revisionData = data.split(",", 5);
+        if (revisionData.length < 5) {
+            return null;
+        }
+        return new ScoreHistory.Revision(Long.parseLong(revisionData[2].trim()), Long.parseLong(revisionData[3].trim()),
+                CentiScore.encode(parseScores(revisionData[4].trim())));
+    }
+
+//      ARCHIVE FILE DATA
+    /** Adds revisions moved out of memory to the end of an archive file, in the same "Revision:" lines as the save file.
+     * The revisions are only removed from memory once they have all been written, so a failed write loses nothing.
+     * @param fileName: the archive file
+     * @param contestList: the contests whose histories are pruned
+     * @param skaterList: the skaters whose histories are pruned
+     * @param cutoff: the time in milliseconds, revisions before it are archived
+     * @return Returns the number of revisions archived, or -1 if the archive could not be written and nothing was removed
+     */
+    public static int archiveRevisions(String fileName, ContestList contestList, SkaterList skaterList, long cutoff) {
+        List<ScoreHistory> histories = new ArrayList<>();
+        List<Long> lastArchived = new ArrayList<>(); // the newest revision written out from each history
+        try (PrintWriter writer = new PrintWriter(new FileWriter(fileName, true))) {
+            for (int i = 1; i <= contestList.getTotal(); i++) {
+                Contest contest = contestList.getContest(i);
+                for (int j = 1; j <= skaterList.getTotal(); j++) {
+                    Skater skater = skaterList.getSkater(j);
+                    ScoreHistory history = skater.getScoreHistory(contest);
+                    if (history == null) {
+                        continue;
+                    }
+                    List<ScoreHistory.Revision> revisions = history.getRevisionsBefore(cutoff);
+                    for (ScoreHistory.Revision revision : revisions) {
+                        writer.println(formatRevision(skater, contest, revision));
+                    }
+                    if (!revisions.isEmpty()) {
+                        histories.add(history);
+                        lastArchived.add(revisions.get(revisions.size() - 1).getRevision());
+                    }
+                }
+            }
+            writer.flush();
+            if (writer.checkError()) { // PrintWriter never throws, so a full disk only shows up here
+                System.out.println("Error archiving score history to file, no revisions were removed.");
+                return -1;
+            }
+        } catch (IOException e) {
+            System.out.println("Error archiving score history to file, no revisions were removed.");
+            return -1;
+        }
+
+        int archived = 0;
+        for (int i = 0; i < histories.size(); i++) { // everything is safely written, so it can now be dropped from memory
+            archived += histories.get(i).pruneThrough(lastArchived.get(i));
+        }
+        return archived;
+    }
+
+    /** Reads back the archived revisions of a skater's scores at a contest
+     * @param fileName: the archive file
+     * @param skater: the skater
+     * @param contest: the contest
+     * @return Returns the revisions, oldest first, or an empty list if none were archived
+     */
+    public static List<ScoreHistory.Revision> readArchivedRevisions(String fileName, Skater skater, Contest contest) {
+        List<ScoreHistory.Revision> revisions = new ArrayList<>();
+        File file = new File(fileName);
+        if (!file.exists()) {
+            return revisions;
+        }
+        try (Scanner scanner = new Scanner(file)) {
+            while (scanner.hasNextLine()) {
+                String line = scanner.nextLine();
+                if (!line.startsWith("Revision:")) {
+                    continue;
+                }
+                String[] revisionData = line.substring(line.indexOf(':') + 1).split(",", 3);
+                if (revisionData.length == 3 && revisionData[0].trim().equalsIgnoreCase(skater.getName())
+                        && revisionData[1].trim().equalsIgnoreCase(contest.getLocation())) {
+                    revisions.add(parseRevision(line.substring(line.indexOf(':') + 1).trim()));
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("An error occurred while reading the score archive: " + e.getMessage());
+        }
+        revisions.sort(Comparator.comparingLong(ScoreHistory.Revision::getRevision)); // each archiving run adds newer revisions after older ones
+        return revisions;
+    }
+
+//      FILE PARSING HELPERS
+    /** Parses the data of a "Destination:" line
+     * @param data: the location and date, separated by a comma
+     * @return Returns the new contest
+     */
+    public static Contest parseContest(String data) {
+        String[] contestData = data.split(","); // splitting the data on the comma into two parts
+        String location = contestData[0].trim(); // first part will be the location
+        String date = contestData[1].trim(); // second part will be the date
+        return new Contest(location, date);
+    }
+
+    /** Parses the data of a "Skater:" line
+     * @param data: the name, stance, nationality and gender, separated by commas
+     * @param athletes: the dictionary skaters are shared through
+     * @return Returns the skater, reused if another tour already has them
+     */
+    public static Skater parseSkater(String data, AthleteDictionary athletes) {
+        String[] skaterData = data.split(","); // splitting the data on the comma into 4 parts
+        String name = skaterData[0].trim(); // first part is the name of the skater
+        String stance = skaterData[1].trim(); // this will be the stance
+        String nationality = skaterData[2].trim(); // this will be the nationality
+        String gender = skaterData[3].trim(); // this will be the gender
+        return athletes.getOrCreate(name, stance, nationality, gender); // skaters on several tours are only stored once
+    }
+
+    /** Parses the scores of a "Scores:" line
+     * @param scores: the scores in points, written as "[a, b, ...]"
+     * @return Returns the scores
+     */
+    public static Double[] parseScores(String scores) {
+        // Convert the scores string to an array of Double[]
+        String[] scoresStringArray = scores.substring(1, scores.length()-1).split(", "); // return a string that is a substring of our string and split it at the commas
+        Double[] scoresArray = new Double[scoresStringArray.length]; // create a new Double[] with the length of our string array
+        for (int i = 0; i < scoresStringArray.length; i++) { // parse each part of the string into a Double and add it to our score array
+            scoresArray[i] = Double.parseDouble(scoresStringArray[i]);
+        }
+        return scoresArray;
+    }
+
+//      SAVE FILE DATA
+    /** Saves a tour to a text save file
+     * @param fileName: the file to write
+     * @param contestList: the contests to save
+     * @param skaterList: the skaters to save, with their scores
+     */
+    public static void saveDataToFile(String fileName, ContestList contestList, SkaterList skaterList) {
+        contestList.ensureAllScoresLoaded(); // scores loaded lazily must be read before the file is overwritten
+        String[] blocks = new String[contestList.getTotal() + 1]; // each contest's score lines, written after the index
+        for (int i = 1; i <= contestList.getTotal(); i++) { // looping for the length of contest list (even if there are no scores we will still save the skater to the contest)
+            Contest contest = contestList.getContest(i); // get the details of the contest at position i in the loop
+            StringBuilder block = new StringBuilder();
+            for (int j = 1; j <= skaterList.getTotal(); j++) { // looping for the length of the skater list
+                Skater skater = skaterList.getSkater(j); // get the skater's information
+                Double[] scores = skater.getScores(contest); // storing the skaters scores for the current iteration of contest into "scores"
+                if (scores != null && scores.length > 0) { // if the skater has scores then...
+                    String scoresString = Arrays.toString(scores); // convert the scores array into a String
+                    block.append("Scores: ").append(skater.getName()).append(", ").append(contest.getLocation()).append(", ")
+                            .append(scoresString).append(System.lineSeparator());
+                    // "Scores: ", skater.getName(), and contest.getLocation() will be used to sort the data when we load the file
+                    for (ScoreHistory.Revision revision : skater.getScoreRevisions(contest)) { // the audit trail, oldest first
+                        block.append(formatRevision(skater, contest, revision)).append(System.lineSeparator());
+                    }
+                }
+            }
+            blocks[i] = block.toString();
+        }
+        try (PrintWriter writer = new PrintWriter(new FileWriter(fileName))) { // try and catch for the writing to the file
+            // save contest details to the file
+            for (int i = 1; i <= contestList.getTotal(); i++) { // looping for the length of the contest list
+                writer.println("Destination: " + contestList.getContest(i).getLocation() + ", " // "Destination: " will be used to sort the data in the file loading method
+                        + contestList.getContest(i).getDate()); // writing every entry to the file using the PrintWriter
+            }
+            // save skater details to the file
+            for (int i = 1; i <= skaterList.getTotal(); i++) { // looping for the length of the skater list
+                writer.println("Skater: " + skaterList.getSkater(i).getName() + ", " + skaterList.getSkater(i).getStance() + ", " // "Skater: " will be used to sort the data in the file loading method
+                        + skaterList.getSkater(i).getNationality() + ", " + skaterList.getSkater(i).getGender()); // again using the PrintWriter to write the data to our file
+            }
+            // save where each contest's scores are, in bytes from the first "Scores:" line, so loading on demand can stop here
+            long offset = 0;
+            for (int i = 1; i <= contestList.getTotal(); i++) {
+                int length = blocks[i].getBytes(Charset.defaultCharset()).length; // FileWriter writes in the default charset too
+                if (length > 0) {
+                    writer.println("Index: " + contestList.getContest(i).getLocation() + ", " + offset + ", " + length);
+                    offset += length;
+                }
+            }
+            // save scores to the file
+            for (int i = 1; i <= contestList.getTotal(); i++) {
+                writer.print(blocks[i]);
+            }
+        } catch (IOException e) { // if we cannot save to the file
+            System.out.println("Error saving data to file.");
+        }
+    }
+
+//      BINARY FILE DATA
+    /** Loads a tour from a binary save file, if there is one
+     * @param fileName: the file to read
+     * @param contestList: the list the contests are added to
+     * @param skaterList: the list the skaters are added to
+     * @param athletes: the dictionary skaters are shared through
+     */
+    public static void loadDataFromBinaryFile(String fileName, ContestList contestList, SkaterList skaterList, AthleteDictionary athletes) {
+        File file = new File(fileName);
+        if (!file.exists()) { // nothing saved yet, the file is created when we exit
+            System.out.println("No binary file found, starting with an empty tour: " + fileName);
+            return;
+        }
+        try {
+            BinaryScoreFile.load(file, contestList, skaterList, athletes);
+        } catch (IOException e) {
+            System.out.println("An error occurred while loading data from file: " + e.getMessage());
+        }
+    }
+
+    /** Saves a tour to a binary save file
+     * @param fileName: the file to write
+     * @param contestList: the contests to save
+     * @param skaterList: the skaters to save, with their scores
+     */
+    public static void saveDataToBinaryFile(String fileName, ContestList contestList, SkaterList skaterList) {
+        try {
+            BinaryScoreFile.save(new File(fileName), contestList, skaterList);
+        } catch (IOException e) {
+            System.out.println("Error saving data to file.");
+        }
+    }
+}
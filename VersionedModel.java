@@ -0,0 +1,60 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/** Keeps the latest immutable ModelSnapshot of a tour. Every change published on the tour's ChangeFeed makes a
+ * new snapshot, and readers pick up the current one with a single read, so reports always see one consistent
+ * version and never hold up score entry.
+ * @author SLS2024 contributors
+ * @version 19/10/2026
+ */
+public class VersionedModel {
+    private final AtomicReference<ModelSnapshot> current;
+
+    /** Constructor takes the first snapshot of the lists and keeps it up to date from their change feed.
+     * Scores already entered are not copied, so this should be created before the tour is loaded.
+     * @param contestList: the tour's contests
+     * @param skaterList: the tour's skaters
+     * @param changeFeed: the feed the lists publish their changes on
+     */
+    public VersionedModel(ContestList contestList, SkaterList skaterList, ChangeFeed changeFeed) {
+        List<Contest> contests = new ArrayList<>();
+        for (int i = 1; i <= contestList.getTotal(); i++) {
+            contests.add(contestList.getContest(i));
+        }
+        List<Skater> skaters = new ArrayList<>();
+        for (int i = 1; i <= skaterList.getTotal(); i++) {
+            skaters.add(skaterList.getSkater(i));
+        }
+        current = new AtomicReference<>(ModelSnapshot.empty(contests, skaters));
+        changeFeed.addListener(this::apply);
+    }
+
+    /** Reads the latest version of the tour
+     * @return Returns the current snapshot, which will not change while it is being read
+     */
+    public ModelSnapshot snapshot() {
+        return current.get();
+    }
+
+    /** Publishes a new snapshot with a contest's scores as they were just read from the save file, as loading is
+     * not published as a change
+     * @param contest: the contest whose scores were loaded
+     */
+    synchronized void load(Contest contest) {
+        current.set(current.get().withLoadedScores(contest));
+    }
+
+    /** Publishes one new snapshot with a batch of changes applied, so readers see all of the batch or none of it.
+     * Writers take turns here but readers never wait. Score changes are read from the skater when they are applied,
+     * so a batch that was held back by publishAsBatch cannot put back scores that have since changed.
+     * @param events: the changes to apply
+     */
+    synchronized void apply(List<ChangeEvent> events) {
+        ModelSnapshot next = current.get();
+        for (ChangeEvent event : events) {
+            next = next.apply(event);
+        }
+        current.set(next);
+    }
+}